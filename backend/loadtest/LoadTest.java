@@ -0,0 +1,283 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load test against a running backend started with the "dataset" profile.
+// Run with: java loadtest/LoadTest.java [--base-url URL] [--users N] [--span N] [--threads N]
+//           [--duration SECONDS] [--warmup SECONDS] [--seed N]
+// --users and --span must match app.dataset.* so that employee and manager ids line up with the generator.
+public class LoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern FIRST_ID = Pattern.compile("\\{\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E+-]+)");
+
+    private static final String PASSWORD = "password123";
+    private static final String EMAIL_DOMAIN = "dataset.local";
+
+    private final String baseUrl;
+    private final int users;
+    private final int span;
+    private final int threads;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final long seed;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+    private final Map<Long, String> tokens = new ConcurrentHashMap<>();
+    private final AtomicInteger errorsLogged = new AtomicInteger();
+
+    private volatile long measureFrom;
+    private volatile long stopAt;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new LoadTest(options).run();
+    }
+
+    LoadTest(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        this.users = Integer.parseInt(options.getOrDefault("users", "50000"));
+        this.span = Integer.parseInt(options.getOrDefault("span", "8"));
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "32"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "7"));
+    }
+
+    void run() throws Exception {
+        System.out.printf("Load test: %s, %d users (span %d), %d threads, %d s + %d s warm-up%n",
+                baseUrl, users, span, threads, durationSeconds, warmupSeconds);
+
+        long start = System.nanoTime();
+        measureFrom = start + warmupSeconds * 1_000_000_000L;
+        stopAt = measureFrom + durationSeconds * 1_000_000_000L;
+
+        List<Worker> workers = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(new Random(seed + i));
+            workers.add(worker);
+            Thread thread = new Thread(() -> {
+                try {
+                    worker.loop();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            thread.start();
+        }
+        done.await();
+
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Worker worker : workers) {
+            worker.samples.forEach((name, samples) -> merged.computeIfAbsent(name, n -> new Samples()).addAll(samples));
+        }
+        report(merged);
+        reportServer();
+    }
+
+    // Employees are the leaves of the generator's tree, managers the inner nodes
+    long firstEmployeeId() {
+        return (users - 2) / span + 2;
+    }
+
+    final class Worker {
+        final Random random;
+        final Map<String, Samples> samples = new HashMap<>();
+
+        Worker(Random random) {
+            this.random = random;
+        }
+
+        void loop() {
+            long firstEmployee = firstEmployeeId();
+            while (System.nanoTime() < stopAt) {
+                int action = random.nextInt(100);
+                try {
+                    if (action < 2) {
+                        signIn(randomId(1, users), true);
+                    } else if (action < 42) {
+                        call("GET /leave-requests/my", "GET", "/leave-requests/my", randomId(firstEmployee, users), null);
+                    } else if (action < 67) {
+                        call("GET /leave-balance/my", "GET", "/leave-balance/my", randomId(firstEmployee, users), null);
+                    } else if (action < 82) {
+                        call("GET /leave-requests/team/pending", "GET", "/leave-requests/team/pending",
+                                randomId(2, firstEmployee - 1), null);
+                    } else if (action < 90) {
+                        approve(randomId(2, firstEmployee - 1));
+                    } else {
+                        create(randomId(firstEmployee, users));
+                    }
+                } catch (Exception e) {
+                    record("error", System.nanoTime(), -1);
+                    if (errorsLogged.getAndIncrement() < 5) {
+                        System.err.println("Request failed: " + e);
+                    }
+                }
+            }
+        }
+
+        void approve(long managerId) throws Exception {
+            HttpResponse<String> pending = call("GET /leave-requests/team/pending", "GET",
+                    "/leave-requests/team/pending", managerId, null);
+            Matcher matcher = FIRST_ID.matcher(pending.body());
+            if (pending.statusCode() == 200 && matcher.find()) {
+                call("POST /leave-requests/{id}/approve", "POST", "/leave-requests/" + matcher.group(1) + "/approve",
+                        managerId, "{\"comments\":\"load test\"}");
+            }
+        }
+
+        void create(long userId) throws Exception {
+            LocalDate start = LocalDate.now().plusDays(30 + random.nextInt(700));
+            String body = String.format("{\"type\":\"%s\",\"startDate\":\"%s\",\"endDate\":\"%s\",\"reason\":\"load test\"}",
+                    random.nextBoolean() ? "ANNUAL" : "SICK", start, start.plusDays(random.nextInt(3)));
+            call("POST /leave-requests", "POST", "/leave-requests", userId, body);
+        }
+
+        String signIn(long userId, boolean fresh) throws Exception {
+            String token = tokens.get(userId);
+            if (token != null && !fresh) {
+                return token;
+            }
+            String body = String.format("{\"email\":\"user%d@%s\",\"password\":\"%s\"}", userId, EMAIL_DOMAIN, PASSWORD);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/signin"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            long started = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            record("POST /auth/signin", started, response.statusCode());
+            Matcher matcher = TOKEN.matcher(response.body());
+            if (!matcher.find()) {
+                throw new IllegalStateException("Sign-in failed for user " + userId + ": " + response.statusCode());
+            }
+            tokens.put(userId, matcher.group(1));
+            return matcher.group(1);
+        }
+
+        HttpResponse<String> call(String name, String method, String path, long userId, String body) throws Exception {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + signIn(userId, false))
+                    .timeout(Duration.ofSeconds(30));
+            if (body != null) {
+                builder.header("Content-Type", "application/json")
+                        .header("Idempotency-Key", UUID.randomUUID().toString())
+                        .method(method, HttpRequest.BodyPublishers.ofString(body));
+            } else {
+                builder.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            long started = System.nanoTime();
+            HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            record(name, started, response.statusCode());
+            return response;
+        }
+
+        void record(String name, long started, int status) {
+            long now = System.nanoTime();
+            if (started >= measureFrom && now <= stopAt) {
+                samples.computeIfAbsent(name, n -> new Samples()).add(now - started, status);
+            }
+        }
+
+        long randomId(long from, long to) {
+            return from + (long) (random.nextDouble() * (to - from + 1));
+        }
+    }
+
+    static final class Samples {
+        long[] latencies = new long[1024];
+        int size;
+        int success;
+        int clientErrors;
+        int serverErrors;
+
+        void add(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (status >= 200 && status < 400) {
+                success++;
+            } else if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else {
+                serverErrors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, Math.max(size * 2, size + other.size));
+                }
+                latencies[size++] = other.latencies[i];
+            }
+            success += other.success;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+        }
+
+        double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    void report(Map<String, Samples> results) {
+        System.out.printf("%n%-36s %8s %8s %6s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "2xx/3xx", "4xx", "5xx", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<String, Samples> entry : results.entrySet()) {
+            Samples samples = entry.getValue();
+            long[] sorted = Arrays.copyOf(samples.latencies, samples.size);
+            Arrays.sort(sorted);
+            total += samples.size;
+            System.out.printf("%-36s %8d %8d %6d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), samples.size, samples.success, samples.clientErrors, samples.serverErrors,
+                    (double) samples.size / durationSeconds,
+                    samples.percentileMillis(sorted, 50), samples.percentileMillis(sorted, 90),
+                    samples.percentileMillis(sorted, 99), samples.percentileMillis(sorted, 100));
+        }
+        System.out.printf("%nThroughput: %.1f req/s over %d s%n", (double) total / durationSeconds, durationSeconds);
+    }
+
+    // Heap and thread figures from the actuator, read as an HR user of the generated dataset
+    void reportServer() {
+        long hrUserId = (firstEmployeeId() + 99) / 100 * 100;
+        try {
+            String token = new Worker(new Random(seed)).signIn(hrUserId, true);
+            for (String metric : List.of("jvm.memory.used?tag=area:heap", "jvm.threads.live", "hikaricp.connections.pending")) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + metric))
+                        .header("Authorization", "Bearer " + token).build();
+                Matcher matcher = METRIC_VALUE.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+                System.out.printf("Server %-40s %s%n", metric, matcher.find() ? matcher.group(1) : "n/a");
+            }
+        } catch (Exception e) {
+            System.out.println("Server metrics unavailable: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+#!/bin/bash
+# Boots the backend on the "dataset" profile (embedded H2, synthetic organisation generated on first start),
+# runs LoadTest.java against it and stops it again. Works offline once the jar is built.
+#   loadtest/run.sh [LoadTest options...]      e.g. loadtest/run.sh --threads 64 --duration 120
+# Dataset size: DATASET_USERS (default 50000), DATASET_REQUESTS_PER_USER (default 100). Other profiles can be
+# added with PROFILES, e.g. PROFILES=dataset,virtual-threads JAVA_OPTS="-Xmx6g -Dapp.threads.virtual-experimental=true"
+# on Java 21.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+USERS=${DATASET_USERS:-50000}
+SPAN=${DATASET_SPAN:-8}
+JAR=target/hr-leave-management-0.0.1-SNAPSHOT.jar
+[ -f "$JAR" ] || mvn -B -q -o package -DskipTests
+
+java ${JAVA_OPTS:--Xmx6g} -jar "$JAR" \
+    --spring.profiles.active="${PROFILES:-dataset}" \
+    --app.dataset.users="$USERS" --app.dataset.span="$SPAN" \
+    --app.dataset.requests-per-user="${DATASET_REQUESTS_PER_USER:-100}" > target/loadtest-server.log 2>&1 &
+SERVER=$!
+trap 'kill $SERVER 2>/dev/null' EXIT
+
+echo "Waiting for the server (the first start also generates the dataset, see target/loadtest-server.log)..."
+# The generator runs after "Started ..." is logged; it ends with "Dataset generated" or "Dataset generation skipped"
+until grep -q "Dataset generat" target/loadtest-server.log; do
+    kill -0 $SERVER 2>/dev/null || { tail -50 target/loadtest-server.log; exit 1; }
+    sleep 2
+done
+
+java loadtest/LoadTest.java --users "$USERS" --span "$SPAN" "$@"
@@ -0,0 +1,55 @@
+package com.hrleave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "leave.accrual")
+public class AccrualProperties {
+
+    // Off: balances keep the fixed yearly allowances of LeaveBalance
+    private boolean enabled = false;
+
+    // Joining after this day of the month starts the accrual the following month
+    private int joinCutoffDay = 15;
+
+    private Policy defaultPolicy = new Policy();
+
+    // Per-department overrides of defaultPolicy
+    private Map<String, Policy> departments = new HashMap<>();
+
+    public Policy policy(String department) {
+        return department != null ? departments.getOrDefault(department, defaultPolicy) : defaultPolicy;
+    }
+
+    // Yearly days, credited pro rata month by month
+    public static class Policy {
+        private int annual = 25;
+        private int sick = 10;
+        private int personal = 5;
+
+        public int getAnnual() { return annual; }
+        public void setAnnual(int annual) { this.annual = annual; }
+
+        public int getSick() { return sick; }
+        public void setSick(int sick) { this.sick = sick; }
+
+        public int getPersonal() { return personal; }
+        public void setPersonal(int personal) { this.personal = personal; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getJoinCutoffDay() { return joinCutoffDay; }
+    public void setJoinCutoffDay(int joinCutoffDay) { this.joinCutoffDay = joinCutoffDay; }
+
+    public Policy getDefaultPolicy() { return defaultPolicy; }
+    public void setDefaultPolicy(Policy defaultPolicy) { this.defaultPolicy = defaultPolicy; }
+
+    public Map<String, Policy> getDepartments() { return departments; }
+    public void setDepartments(Map<String, Policy> departments) { this.departments = departments; }
+}
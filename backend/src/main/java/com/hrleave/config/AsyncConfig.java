@@ -0,0 +1,54 @@
+package com.hrleave.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// @Async executors. Declaring the mail pool switches off Boot's default executor, so it is declared here too,
+// with the same choice Boot makes: virtual threads when spring.threads.virtual.enabled is set on Java 21+.
+@Configuration
+public class AsyncConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                  AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder virtualThreadBuilder,
+                                                     Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            logger.info("Request handling and @Async tasks run on virtual threads");
+            return virtualThreadBuilder.build();
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            logger.warn("spring.threads.virtual.enabled is ignored: Java {} has no virtual threads (21+ required)",
+                    Runtime.version().feature());
+        } else if (environment.matchesProfiles("virtual-threads")) {
+            logger.warn("The virtual-threads profile is experimental and unmeasured; it stays off until " +
+                    "app.threads.virtual-experimental=true is set");
+        }
+        return threadPoolBuilder.build();
+    }
+
+    // Jakarta Mail's SMTPTransport does its socket I/O inside synchronized methods, which would pin
+    // the carrier thread of a virtual thread, so mail always goes out on a small platform-thread pool
+    @Bean
+    public ThreadPoolTaskExecutor mailExecutor(ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                               Environment environment) {
+        int poolSize = environment.getProperty("app.mail.pool-size", Integer.class, 4);
+        return threadPoolBuilder
+                .corePoolSize(poolSize)
+                .maxPoolSize(poolSize)
+                .threadNamePrefix("mail-")
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.hrleave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "leave.coverage")
+public class CoverageProperties {
+
+    // Maximum number of people of one department off on the same day, 0 = unlimited
+    private int defaultMaxAbsent = 0;
+
+    // Per-department overrides of defaultMaxAbsent
+    private Map<String, Integer> departments = new HashMap<>();
+
+    public int maxAbsent(String department) {
+        return departments.getOrDefault(department, defaultMaxAbsent);
+    }
+
+    public int getDefaultMaxAbsent() { return defaultMaxAbsent; }
+    public void setDefaultMaxAbsent(int defaultMaxAbsent) { this.defaultMaxAbsent = defaultMaxAbsent; }
+
+    public Map<String, Integer> getDepartments() { return departments; }
+    public void setDepartments(Map<String, Integer> departments) { this.departments = departments; }
+}
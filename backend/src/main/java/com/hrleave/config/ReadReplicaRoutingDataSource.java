@@ -0,0 +1,117 @@
+package com.hrleave.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Sends read-only transactions to the replica and everything else to the primary.
+// Primary connections watch the statements they prepare, so that a user's reads only stay on the primary after a
+// transaction that actually wrote has committed (or right away for an auto-commit write).
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReadReplicaRoutingDataSource(ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        return lagGuard.mustReadFromPrimary() ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+
+    private Connection trackWrites(Connection connection) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connection;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return writeTracking(connection, lagGuard::recordWrite);
+        }
+        AtomicBoolean wrote = new AtomicBoolean();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (wrote.get()) {
+                    lagGuard.recordWrite();
+                }
+            }
+        });
+        return writeTracking(connection, () -> wrote.set(true));
+    }
+
+    private static Connection writeTracking(Connection connection, Runnable onWrite) {
+        AtomicBoolean seen = new AtomicBoolean();
+        Runnable once = () -> {
+            if (seen.compareAndSet(false, true)) {
+                onWrite.run();
+            }
+        };
+        return proxy(Connection.class, connection, (method, args) -> {
+            String name = method.getName();
+            if ((name.equals("prepareStatement") || name.equals("prepareCall")) && writes((String) args[0])) {
+                once.run();
+            }
+            Object result = method.invoke(connection, args);
+            if (name.equals("createStatement")) {
+                Statement statement = (Statement) result;
+                return proxy(Statement.class, statement, (statementMethod, statementArgs) -> {
+                    if (statementMethod.getName().matches("execute.*|addBatch") && statementArgs != null
+                            && statementArgs.length > 0 && statementArgs[0] instanceof String sql && writes(sql)) {
+                        once.run();
+                    }
+                    return statementMethod.invoke(statement, statementArgs);
+                });
+            }
+            return result;
+        });
+    }
+
+    // Anything but a plain query; SELECT ... FOR UPDATE only locks
+    private static boolean writes(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return !(statement.startsWith("select") || statement.startsWith("with") || statement.startsWith("explain")
+                || statement.startsWith("show"));
+    }
+
+    private interface Call {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return call.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
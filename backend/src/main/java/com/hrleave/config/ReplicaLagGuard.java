@@ -0,0 +1,69 @@
+package com.hrleave.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Remembers when each user last wrote, so their reads stay on the primary until the replica has caught up.
+// At most maxTrackedUsers recent writers are remembered; past that, every read goes to the primary until the lag
+// window of the untracked writes has passed.
+public class ReplicaLagGuard {
+
+    private final long maxLagNanos;
+    private final int maxTrackedUsers;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long primaryOnlyUntil = System.nanoTime();
+
+    public ReplicaLagGuard(long maxLagMs, int maxTrackedUsers) {
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMs);
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+
+    // Called once a transaction that wrote has committed
+    public void recordWrite() {
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastWrites.size() >= maxTrackedUsers && !lastWrites.containsKey(username)) {
+            lastWrites.values().removeIf(lastWrite -> now - lastWrite > maxLagNanos);
+            if (lastWrites.size() >= maxTrackedUsers) {
+                primaryOnlyUntil = now + maxLagNanos;
+                return;
+            }
+        }
+        lastWrites.put(username, now);
+    }
+
+    public boolean mustReadFromPrimary() {
+        if (System.nanoTime() - primaryOnlyUntil < 0) {
+            return true;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite > maxLagNanos) {
+            lastWrites.remove(username, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    int trackedUsers() {
+        return lastWrites.size();
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
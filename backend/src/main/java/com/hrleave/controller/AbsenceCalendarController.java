@@ -0,0 +1,59 @@
+package com.hrleave.controller;
+
+import com.hrleave.dto.AbsenceCalendarDto;
+import com.hrleave.entity.User;
+import com.hrleave.service.AbsenceCalendarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/absence-calendar")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Absence Calendar", description = "Team and department absence calendar APIs")
+public class AbsenceCalendarController {
+
+    @Autowired
+    private AbsenceCalendarService absenceCalendarService;
+
+    @GetMapping("/team")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Get team absences", description = "Who in the manager's team is out between two dates")
+    public ResponseEntity<List<AbsenceCalendarDto>> getTeamAbsences(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Authentication authentication) {
+        try {
+            User manager = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(absenceCalendarService.getTeamAbsences(manager.getId(), startDate,
+                    endDate != null ? endDate : startDate));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/department/{department}")
+    @PreAuthorize("hasRole('HR') or hasRole('MANAGER')")
+    @Operation(summary = "Get department absences", description = "Who in a department is out between two dates")
+    public ResponseEntity<List<AbsenceCalendarDto>> getDepartmentAbsences(
+            @PathVariable String department,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            return ResponseEntity.ok(absenceCalendarService.getDepartmentAbsences(department, startDate,
+                    endDate != null ? endDate : startDate));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
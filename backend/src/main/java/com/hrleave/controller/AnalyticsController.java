@@ -0,0 +1,38 @@
+package com.hrleave.controller;
+
+import com.hrleave.dto.AbsenceReportDto;
+import com.hrleave.service.AbsenceAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/analytics")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Analytics", description = "Absence analytics APIs")
+public class AnalyticsController {
+
+    @Autowired
+    private AbsenceAnalyticsService absenceAnalyticsService;
+
+    @GetMapping("/absence")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Get absence report", description = "Absence days and rates by department, month and leave type (HR only)")
+    public ResponseEntity<AbsenceReportDto> getAbsenceReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            return ResponseEntity.ok(absenceAnalyticsService.getAbsenceReport(startDate, endDate));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.hrleave.controller;
+
+import com.hrleave.dto.VersionStamp;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+// Conditional GET helpers: answer 304 from a version stamp before the payload is loaded
+final class ConditionalGet {
+
+    // Browsers may keep the response but must revalidate it on every use
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    // Sets ETag/Last-Modified on the response and returns true when the client's copy is current
+    static boolean notModified(WebRequest request, VersionStamp stamp) {
+        return stamp != null && request.checkNotModified(stamp.getTag(), stamp.getLastModifiedMillis());
+    }
+
+    static <T> ResponseEntity<T> notModifiedResponse() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.hrleave.controller;
+
+import com.hrleave.entity.PublicHoliday;
+import com.hrleave.entity.User;
+import com.hrleave.service.HolidayCalendarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/holidays")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Holidays", description = "Public holiday calendar APIs")
+public class HolidayController {
+
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
+
+    @GetMapping("/{calendarCode}")
+    @Operation(summary = "Get holidays", description = "Get the public holidays of a calendar for a year")
+    public ResponseEntity<List<PublicHoliday>> getHolidays(@PathVariable String calendarCode,
+                                                           @RequestParam Integer year) {
+        return ResponseEntity.ok(holidayCalendarService.getHolidays(calendarCode, year));
+    }
+
+    @GetMapping("/working-days")
+    @Operation(summary = "Count working days", description = "Count working days between two dates in the current user's calendar")
+    public ResponseEntity<Map<String, Integer>> countWorkingDays(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(Map.of("days", holidayCalendarService.countWorkingDays(user, startDate, endDate)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Add holiday", description = "Add a public holiday to a calendar (HR only)")
+    public ResponseEntity<PublicHoliday> addHoliday(@Valid @RequestBody PublicHoliday holiday) {
+        try {
+            return ResponseEntity.ok(holidayCalendarService.addHoliday(holiday));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Delete holiday", description = "Delete a public holiday (HR only)")
+    public ResponseEntity<?> deleteHoliday(@PathVariable Long id) {
+        try {
+            holidayCalendarService.deleteHoliday(id);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.hrleave.controller;
 
+import com.hrleave.dto.AccrualRunDto;
+import com.hrleave.dto.BalanceReconciliationDto;
 import com.hrleave.dto.LeaveBalanceDto;
 import com.hrleave.entity.User;
+import com.hrleave.service.BalanceReconciliationService;
+import com.hrleave.service.LeaveAccrualService;
 import com.hrleave.service.LeaveBalanceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,6 +15,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -22,12 +30,21 @@ public class LeaveBalanceController {
     @Autowired
     private LeaveBalanceService leaveBalanceService;
 
+    @Autowired
+    private BalanceReconciliationService balanceReconciliationService;
+
+    @Autowired
+    private LeaveAccrualService leaveAccrualService;
+
     @GetMapping("/my")
     @Operation(summary = "Get my leave balance", description = "Get current user's leave balance")
-    public ResponseEntity<LeaveBalanceDto> getMyLeaveBalance(Authentication authentication) {
+    public ResponseEntity<LeaveBalanceDto> getMyLeaveBalance(Authentication authentication, WebRequest request) {
         User user = (User) authentication.getPrincipal();
+        if (ConditionalGet.notModified(request, leaveBalanceService.getLeaveBalanceVersion(user.getId()))) {
+            return ConditionalGet.notModifiedResponse();
+        }
         LeaveBalanceDto balance = leaveBalanceService.getLeaveBalance(user.getId());
-        return ResponseEntity.ok(balance);
+        return ResponseEntity.ok().cacheControl(ConditionalGet.REVALIDATE).body(balance);
     }
 
     @GetMapping("/{userId}")
@@ -46,4 +63,33 @@ public class LeaveBalanceController {
         LeaveBalanceDto updatedBalance = leaveBalanceService.updateLeaveBalance(userId, balanceDto);
         return ResponseEntity.ok(updatedBalance);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Reconcile leave balances", description = "Compare used days with approved requests and optionally correct drift (HR only)")
+    public ResponseEntity<BalanceReconciliationDto> reconcileLeaveBalances(@RequestParam(required = false) Integer year,
+                                                                           @RequestParam(defaultValue = "false") boolean correct,
+                                                                           Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            int reconciledYear = year != null ? year : LocalDate.now().getYear();
+            return ResponseEntity.ok(balanceReconciliationService.reconcile(reconciledYear, correct, user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/accrue")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Run leave accrual", description = "Credit monthly accrual up to the given period, yyyy-MM (HR only)")
+    public ResponseEntity<AccrualRunDto> accrueLeave(@RequestParam(required = false) String period,
+                                                     Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            YearMonth accrualPeriod = period != null ? YearMonth.parse(period) : YearMonth.now();
+            return ResponseEntity.ok(leaveAccrualService.accrue(accrualPeriod, user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
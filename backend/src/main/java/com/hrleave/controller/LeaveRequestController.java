@@ -1,18 +1,34 @@
 package com.hrleave.controller;
 
+import com.hrleave.dto.ArchiveRunDto;
+import com.hrleave.dto.EscalationRunDto;
 import com.hrleave.dto.LeaveRequestDto;
+import com.hrleave.dto.LeaveStatsDto;
+import com.hrleave.dto.ReadModelRunDto;
+import com.hrleave.entity.LeaveRequest;
 import com.hrleave.entity.User;
+import com.hrleave.service.IdempotencyService;
+import com.hrleave.service.LeaveArchiveService;
+import com.hrleave.service.LeaveEscalationService;
+import com.hrleave.service.LeaveEventBroadcaster;
 import com.hrleave.service.LeaveRequestService;
+import com.hrleave.service.LeaveRequestViewService;
+import com.hrleave.service.LeaveStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +42,24 @@ public class LeaveRequestController {
     @Autowired
     private LeaveRequestService leaveRequestService;
 
+    @Autowired
+    private LeaveStatsService leaveStatsService;
+
+    @Autowired
+    private LeaveEventBroadcaster leaveEventBroadcaster;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private LeaveEscalationService leaveEscalationService;
+
+    @Autowired
+    private LeaveArchiveService leaveArchiveService;
+
+    @Autowired
+    private LeaveRequestViewService leaveRequestViewService;
+
     @GetMapping
     @PreAuthorize("hasRole('HR')")
     @Operation(summary = "Get all leave requests", description = "Retrieve all leave requests (HR only)")
@@ -34,10 +68,26 @@ public class LeaveRequestController {
     }
 
     @GetMapping("/my")
-    @Operation(summary = "Get my leave requests", description = "Get current user's leave requests")
-    public ResponseEntity<List<LeaveRequestDto>> getMyLeaveRequests(Authentication authentication) {
+    @Operation(summary = "Get my leave requests",
+               description = "Get current user's leave requests; archived ones are included when startDate is old enough")
+    public ResponseEntity<List<LeaveRequestDto>> getMyLeaveRequests(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Authentication authentication, WebRequest request) {
         User user = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(leaveRequestService.getLeaveRequestsByUserId(user.getId()));
+        if (ConditionalGet.notModified(request, leaveRequestService.getLeaveRequestsVersion(user))) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        if (startDate == null) {
+            return ResponseEntity.ok().cacheControl(ConditionalGet.REVALIDATE)
+                    .body(leaveRequestService.getLeaveRequestsByUserId(user.getId()));
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(ConditionalGet.REVALIDATE)
+                    .body(leaveRequestService.getLeaveRequestsByUserId(user.getId(), startDate, endDate));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/team")
@@ -56,6 +106,66 @@ public class LeaveRequestController {
         return ResponseEntity.ok(leaveRequestService.getPendingRequestsByManagerId(manager.getId()));
     }
 
+    @GetMapping("/organization")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('HR')")
+    @Operation(summary = "Get organisation leave requests", description = "Get leave requests of all reports at any depth")
+    public ResponseEntity<List<LeaveRequestDto>> getOrganizationLeaveRequests(
+            @RequestParam(required = false) LeaveRequest.Status status, Authentication authentication) {
+        User manager = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(leaveRequestService.getLeaveRequestsByOrganization(manager.getId(), status));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Get leave request statistics", description = "Counts by status, type and department (HR only)")
+    public ResponseEntity<LeaveStatsDto> getLeaveRequestStats() {
+        return ResponseEntity.ok(leaveStatsService.getStats());
+    }
+
+    @PostMapping("/escalate")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Escalate stale leave requests", description = "Escalate or auto-approve requests pending too long (HR only)")
+    public ResponseEntity<EscalationRunDto> escalateStaleLeaveRequests(Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(leaveEscalationService.sweep(user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Archive closed leave requests", description = "Move closed requests past the retention period to the archive (HR only)")
+    public ResponseEntity<ArchiveRunDto> archiveLeaveRequests(Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(leaveArchiveService.archive(user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/read-model/rebuild")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Rebuild leave request read model", description = "Rewrite the denormalized rows served by the list endpoints from leave_requests and users (HR only)")
+    public ResponseEntity<ReadModelRunDto> rebuildReadModel(Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(leaveRequestViewService.rebuild(user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream leave request events",
+               description = "Server-sent events (created, approved, rejected, cancelled) for my requests and my team's")
+    public SseEmitter streamLeaveRequestEvents(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return leaveEventBroadcaster.subscribe(user.getId());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get leave request by ID", description = "Retrieve leave request by ID")
     public ResponseEntity<LeaveRequestDto> getLeaveRequestById(@PathVariable Long id) {
@@ -67,11 +177,13 @@ public class LeaveRequestController {
     @PostMapping
     @Operation(summary = "Create leave request", description = "Create a new leave request")
     public ResponseEntity<LeaveRequestDto> createLeaveRequest(@Valid @RequestBody LeaveRequestDto requestDto, 
+                                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                                              Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        // Failures escape the action so that IdempotencyService releases the key of a rolled-back attempt
         try {
-            User user = (User) authentication.getPrincipal();
-            LeaveRequestDto createdRequest = leaveRequestService.createLeaveRequest(requestDto, user.getId());
-            return ResponseEntity.ok(createdRequest);
+            return idempotencyService.execute(idempotencyKey, user.getId(), "create", requestDto, LeaveRequestDto.class,
+                    () -> ResponseEntity.ok(leaveRequestService.createLeaveRequest(requestDto, user.getId())));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -96,12 +208,12 @@ public class LeaveRequestController {
     @Operation(summary = "Approve leave request", description = "Approve a leave request")
     public ResponseEntity<LeaveRequestDto> approveLeaveRequest(@PathVariable Long id, 
                                                               @RequestBody Map<String, String> request,
+                                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                                               Authentication authentication) {
+        User reviewer = (User) authentication.getPrincipal();
         try {
-            User reviewer = (User) authentication.getPrincipal();
-            String comments = request.get("comments");
-            LeaveRequestDto approvedRequest = leaveRequestService.approveLeaveRequest(id, comments, reviewer.getId());
-            return ResponseEntity.ok(approvedRequest);
+            return idempotencyService.execute(idempotencyKey, reviewer.getId(), "approve:" + id, request, LeaveRequestDto.class,
+                    () -> ResponseEntity.ok(leaveRequestService.approveLeaveRequest(id, request.get("comments"), reviewer.getId())));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -112,12 +224,12 @@ public class LeaveRequestController {
     @Operation(summary = "Reject leave request", description = "Reject a leave request")
     public ResponseEntity<LeaveRequestDto> rejectLeaveRequest(@PathVariable Long id, 
                                                              @RequestBody Map<String, String> request,
+                                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                                              Authentication authentication) {
+        User reviewer = (User) authentication.getPrincipal();
         try {
-            User reviewer = (User) authentication.getPrincipal();
-            String comments = request.get("comments");
-            LeaveRequestDto rejectedRequest = leaveRequestService.rejectLeaveRequest(id, comments, reviewer.getId());
-            return ResponseEntity.ok(rejectedRequest);
+            return idempotencyService.execute(idempotencyKey, reviewer.getId(), "reject:" + id, request, LeaveRequestDto.class,
+                    () -> ResponseEntity.ok(leaveRequestService.rejectLeaveRequest(id, request.get("comments"), reviewer.getId())));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -125,11 +237,15 @@ public class LeaveRequestController {
 
     @PostMapping("/{id}/cancel")
     @Operation(summary = "Cancel leave request", description = "Cancel own leave request")
-    public ResponseEntity<?> cancelLeaveRequest(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<Void> cancelLeaveRequest(@PathVariable Long id,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                   Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
         try {
-            User user = (User) authentication.getPrincipal();
-            leaveRequestService.cancelLeaveRequest(id, user.getId());
-            return ResponseEntity.ok().build();
+            return idempotencyService.execute(idempotencyKey, user.getId(), "cancel:" + id, null, Void.class, () -> {
+                leaveRequestService.cancelLeaveRequest(id, user.getId());
+                return ResponseEntity.ok().<Void>build();
+            });
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -0,0 +1,48 @@
+package com.hrleave.controller;
+
+import com.hrleave.dto.SearchResultDto;
+import com.hrleave.service.LeaveSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/search")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Search", description = "Full-text search over leave requests and audit logs")
+public class SearchController {
+
+    @Autowired
+    private LeaveSearchService leaveSearchService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Search", description = "Ranked ids of leave requests and audit rows matching every term of q; type is leave-request or audit (HR only)")
+    public ResponseEntity<SearchResultDto> search(@RequestParam String q,
+                                                  @RequestParam(required = false) String type,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(leaveSearchService.search(q, type, page, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Rebuild search index", description = "Reindex every leave request and audit row in the background (HR only)")
+    public ResponseEntity<Void> rebuildIndex() {
+        try {
+            leaveSearchService.requestRebuild();
+            return ResponseEntity.accepted().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -55,6 +55,14 @@ public class UserController {
         return ResponseEntity.ok(teamMembers);
     }
 
+    @GetMapping("/organization")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('HR')")
+    @Operation(summary = "Get organisation members", description = "Get all reports of the current user at any depth")
+    public ResponseEntity<List<User>> getOrganizationMembers(Authentication authentication) {
+        User manager = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(userService.getOrganizationMembers(manager.getId()));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('HR')")
     @Operation(summary = "Update user", description = "Update user information (HR only)")
@@ -0,0 +1,300 @@
+package com.hrleave.dataset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Fills an empty database with a synthetic organisation for load tests (profile "dataset").
+// Users form a complete tree with app.dataset.span reports per manager; user N signs in as
+// userN@dataset.local with the password below. Generation is seeded, so every run produces the same data.
+// Runs as an ApplicationRunner, i.e. before the ApplicationReadyEvent rebuilds of the in-memory indexes.
+@Component
+@Profile("dataset")
+public class DatasetGenerator implements ApplicationRunner {
+
+    public static final String PASSWORD = "password123";
+    public static final String EMAIL_DOMAIN = "dataset.local";
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] DEPARTMENTS = {
+            "Engineering", "Sales", "Marketing", "Finance", "Operations", "Support", "Product", "Legal"
+    };
+    private static final String HR_DEPARTMENT = "Human Resources";
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bruno", "Chloé", "David", "Emma", "Farid", "Gabriel", "Hugo", "Inès", "Jules",
+            "Karim", "Léa", "Manon", "Nathan", "Océane", "Paul", "Quentin", "Rose", "Sofia", "Tom"
+    };
+    private static final String[] LAST_NAMES = {
+            "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+            "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier"
+    };
+    private static final String[] REASONS = {
+            "Family holiday", "Medical appointment", "Moving house", "Personal matters", "Wedding", "Rest"
+    };
+
+    // Yearly entitlements, as in LeaveBalance
+    private static final int ANNUAL_DAYS = 25;
+    private static final int SICK_DAYS = 10;
+    private static final int PERSONAL_DAYS = 5;
+
+    private static final String USER_SQL = "INSERT INTO users (id, email, password, first_name, last_name, role, "
+            + "manager_id, department, join_date, enabled, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String REQUEST_SQL = "INSERT INTO leave_requests (id, user_id, type, start_date, end_date, days, "
+            + "reason, status, submitted_at, reviewed_at, reviewed_by, reviewer_comments, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String AUDIT_SQL = "INSERT INTO audit_logs (id, user_id, action, entity_type, entity_id, "
+            + "details, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String BALANCE_SQL = "INSERT INTO leave_balances (id, user_id, annual_leave, sick_leave, "
+            + "personal_leave, used_annual, used_sick, used_personal, year, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.dataset.users:50000}")
+    private int users;
+
+    @Value("${app.dataset.span:8}")
+    private int span;
+
+    @Value("${app.dataset.requests-per-user:100}")
+    private int requestsPerUser;
+
+    @Value("${app.dataset.years:10}")
+    private int years;
+
+    @Value("${app.dataset.seed:42}")
+    private long seed;
+
+    @Value("${app.dataset.batch-size:5000}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existing != null && existing > 0) {
+            logger.info("Dataset generation skipped: users already holds {} rows", existing);
+            return;
+        }
+
+        long started = System.nanoTime();
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        insertUsers(random, today, now);
+        long[] counts = insertLeave(random, today, now);
+        restartIdentity("users", users + 1L);
+        restartIdentity("leave_balances", users + 1L);
+        restartIdentity("leave_requests", counts[0] + 1);
+        restartIdentity("audit_logs", counts[1] + 1);
+
+        logger.info("Dataset generated in {} s: {} users (span {}), {} leave requests, {} audit rows",
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started), users, span, counts[0], counts[1]);
+    }
+
+    public static String email(long userId) {
+        return "user" + userId + "@" + EMAIL_DOMAIN;
+    }
+
+    // User ids are 1-based; user 1 is the root of the tree
+    public static Long managerId(long userId, int span) {
+        return userId == 1 ? null : (userId - 2) / span + 1;
+    }
+
+    public static boolean isManager(long userId, int users, int span) {
+        return (userId - 1) * span + 2 <= users;
+    }
+
+    private void insertUsers(Random random, LocalDate today, LocalDateTime now) {
+        String password = passwordEncoder.encode(PASSWORD);
+        String[] department = new String[users + 1];
+        Batch batch = new Batch(USER_SQL);
+
+        for (long id = 1; id <= users; id++) {
+            Long managerId = managerId(id, span);
+            // Each report of the root heads a department; everyone below inherits it
+            String userDepartment = managerId == null ? "Executive"
+                    : managerId == 1 ? DEPARTMENTS[(int) (id - 2) % DEPARTMENTS.length]
+                    : department[managerId.intValue()];
+            department[(int) id] = userDepartment;
+
+            String role = isManager(id, users, span) ? "MANAGER" : id % 100 == 0 ? "HR" : "EMPLOYEE";
+            batch.add(id, email(id), password,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    role, managerId, role.equals("HR") ? HR_DEPARTMENT : userDepartment,
+                    today.minusDays(random.nextInt(years * 365)), true, now, now);
+        }
+        batch.flush();
+        logger.info("Dataset: {} users inserted", users);
+    }
+
+    // Returns {leave requests, audit rows}
+    private long[] insertLeave(Random random, LocalDate today, LocalDateTime now) {
+        Batch requests = new Batch(REQUEST_SQL);
+        Batch audits = new Batch(AUDIT_SQL);
+        Batch balances = new Batch(BALANCE_SQL);
+        LocalDate rangeStart = LocalDate.of(today.getYear() - years + 1, 1, 1);
+        LocalDate rangeEnd = today.plusMonths(6);
+        int spacing = (int) Math.max(2, ChronoUnit.DAYS.between(rangeStart, rangeEnd) / Math.max(1, requestsPerUser));
+        long requestId = 0;
+        long auditId = 0;
+
+        for (long userId = 1; userId <= users; userId++) {
+            Long reviewerId = managerId(userId, span);
+            int[] used = new int[3];
+            LocalDate cursor = rangeStart.plusDays(random.nextInt(spacing));
+
+            for (int n = 0; n < requestsPerUser && cursor.isBefore(rangeEnd); n++) {
+                LocalDate startDate = nextWorkingDay(cursor);
+                LocalDate endDate = startDate.plusDays(random.nextInt(7));
+                int days = workingDays(startDate, endDate);
+                cursor = endDate.plusDays(1 + random.nextInt(Math.max(1, 2 * spacing - 8)));
+
+                String type = type(random);
+                String status = status(random, endDate.isBefore(today));
+                // Keep the current year's balance within its entitlement, as the service would
+                if (status.equals("APPROVED") && startDate.getYear() == today.getYear() && !deduct(used, type, days)) {
+                    status = "REJECTED";
+                }
+
+                LocalDateTime submittedAt = startDate.minusDays(1 + random.nextInt(30)).atTime(9, random.nextInt(60));
+                // The root of the tree has no manager: their decisions carry no reviewer
+                boolean reviewed = status.equals("APPROVED") || status.equals("REJECTED");
+                LocalDateTime reviewedAt = reviewed ? submittedAt.plusHours(2 + random.nextInt(46)) : null;
+
+                requestId++;
+                requests.add(requestId, userId, type, startDate, endDate, days,
+                        REASONS[random.nextInt(REASONS.length)], status, submittedAt, reviewedAt,
+                        reviewed ? reviewerId : null, reviewed ? "ok" : null, submittedAt,
+                        reviewed ? reviewedAt : submittedAt);
+
+                audits.add(++auditId, userId, "CREATE_LEAVE_REQUEST", "LeaveRequest", requestId,
+                        "Created leave request for " + days + " days", submittedAt);
+                if (reviewed) {
+                    audits.add(++auditId, reviewerId, status + "_LEAVE_REQUEST", "LeaveRequest", requestId,
+                            status.toLowerCase() + " leave request", reviewedAt);
+                } else if (status.equals("CANCELLED")) {
+                    audits.add(++auditId, userId, "CANCEL_LEAVE_REQUEST", "LeaveRequest", requestId,
+                            "Cancelled leave request", submittedAt.plusDays(1));
+                }
+            }
+
+            balances.add(userId, userId, ANNUAL_DAYS, SICK_DAYS, PERSONAL_DAYS, used[0], used[1], used[2],
+                    today.getYear(), now, now);
+
+            if (userId % 5000 == 0) {
+                logger.info("Dataset: leave generated for {} / {} users ({} requests)", userId, users, requestId);
+            }
+        }
+        requests.flush();
+        audits.flush();
+        balances.flush();
+        return new long[] {requestId, auditId};
+    }
+
+    private static String type(Random random) {
+        int r = random.nextInt(100);
+        return r < 60 ? "ANNUAL" : r < 85 ? "SICK" : r < 95 ? "PERSONAL" : r < 99 ? "EMERGENCY" : "MATERNITY";
+    }
+
+    private static String status(Random random, boolean past) {
+        int r = random.nextInt(100);
+        if (!past) {
+            return r < 60 ? "PENDING" : "APPROVED";
+        }
+        return r < 80 ? "APPROVED" : r < 92 ? "REJECTED" : "CANCELLED";
+    }
+
+    private static boolean deduct(int[] used, String type, int days) {
+        int index = type.equals("ANNUAL") ? 0 : type.equals("SICK") ? 1 : type.equals("PERSONAL") ? 2 : -1;
+        if (index < 0) {
+            return true;
+        }
+        int entitlement = index == 0 ? ANNUAL_DAYS : index == 1 ? SICK_DAYS : PERSONAL_DAYS;
+        if (used[index] + days > entitlement) {
+            return false;
+        }
+        used[index] += days;
+        return true;
+    }
+
+    private static LocalDate nextWorkingDay(LocalDate day) {
+        while (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            day = day.plusDays(1);
+        }
+        return day;
+    }
+
+    private static int workingDays(LocalDate startDate, LocalDate endDate) {
+        int days = 0;
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days++;
+            }
+        }
+        return days;
+    }
+
+    // Explicit ids were inserted, so move the identity past them for rows created through the API
+    private void restartIdentity(String table, long next) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " AUTO_INCREMENT = " + next);
+        }
+    }
+
+    // Buffers rows and writes them as one JDBC batch per transaction
+    private final class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+            rows.clear();
+        }
+    }
+}
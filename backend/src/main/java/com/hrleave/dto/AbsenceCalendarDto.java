@@ -0,0 +1,41 @@
+package com.hrleave.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class AbsenceCalendarDto {
+    private Long userId;
+    private String firstName;
+    private String lastName;
+    private String department;
+
+    // Approved leave days inside the requested range
+    private List<LocalDate> days;
+
+    // Constructors
+    public AbsenceCalendarDto() {}
+
+    public AbsenceCalendarDto(Long userId, String firstName, String lastName, String department, List<LocalDate> days) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.department = department;
+        this.days = days;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public List<LocalDate> getDays() { return days; }
+    public void setDays(List<LocalDate> days) { this.days = days; }
+}
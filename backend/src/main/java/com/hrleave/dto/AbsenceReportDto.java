@@ -0,0 +1,57 @@
+package com.hrleave.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class AbsenceReportDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    // Axis labels for the arrays below
+    private List<String> departments;
+    private List<String> months;
+    private List<String> types;
+
+    // headcount[department]
+    private long[] headcount;
+
+    // workingDays[month]
+    private int[] workingDays;
+
+    // absenceDays[department][month][type], counted in working days
+    private long[][][] absenceDays;
+
+    // absenceRate[department][month] = absence days / (headcount * working days)
+    private double[][] absenceRate;
+
+    // Constructors
+    public AbsenceReportDto() {}
+
+    // Getters and Setters
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public List<String> getDepartments() { return departments; }
+    public void setDepartments(List<String> departments) { this.departments = departments; }
+
+    public List<String> getMonths() { return months; }
+    public void setMonths(List<String> months) { this.months = months; }
+
+    public List<String> getTypes() { return types; }
+    public void setTypes(List<String> types) { this.types = types; }
+
+    public long[] getHeadcount() { return headcount; }
+    public void setHeadcount(long[] headcount) { this.headcount = headcount; }
+
+    public int[] getWorkingDays() { return workingDays; }
+    public void setWorkingDays(int[] workingDays) { this.workingDays = workingDays; }
+
+    public long[][][] getAbsenceDays() { return absenceDays; }
+    public void setAbsenceDays(long[][][] absenceDays) { this.absenceDays = absenceDays; }
+
+    public double[][] getAbsenceRate() { return absenceRate; }
+    public void setAbsenceRate(double[][] absenceRate) { this.absenceRate = absenceRate; }
+}
@@ -0,0 +1,42 @@
+package com.hrleave.dto;
+
+public class AccrualRunDto {
+    private String period;
+    private int usersChecked;
+    private int usersAccrued;
+
+    // Days credited by this run, summed over the users
+    private long annualDays;
+    private long sickDays;
+    private long personalDays;
+    private long durationMs;
+
+    // Constructors
+    public AccrualRunDto() {}
+
+    public AccrualRunDto(String period) {
+        this.period = period;
+    }
+
+    // Getters and Setters
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public int getUsersChecked() { return usersChecked; }
+    public void setUsersChecked(int usersChecked) { this.usersChecked = usersChecked; }
+
+    public int getUsersAccrued() { return usersAccrued; }
+    public void setUsersAccrued(int usersAccrued) { this.usersAccrued = usersAccrued; }
+
+    public long getAnnualDays() { return annualDays; }
+    public void setAnnualDays(long annualDays) { this.annualDays = annualDays; }
+
+    public long getSickDays() { return sickDays; }
+    public void setSickDays(long sickDays) { this.sickDays = sickDays; }
+
+    public long getPersonalDays() { return personalDays; }
+    public void setPersonalDays(long personalDays) { this.personalDays = personalDays; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
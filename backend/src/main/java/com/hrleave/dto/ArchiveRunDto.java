@@ -0,0 +1,31 @@
+package com.hrleave.dto;
+
+import java.time.LocalDate;
+
+public class ArchiveRunDto {
+    // Closed requests that ended before this date were moved
+    private LocalDate cutoff;
+    private int requestsArchived;
+    private int chunks;
+    private long durationMs;
+
+    // Constructors
+    public ArchiveRunDto() {}
+
+    public ArchiveRunDto(LocalDate cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    // Getters and Setters
+    public LocalDate getCutoff() { return cutoff; }
+    public void setCutoff(LocalDate cutoff) { this.cutoff = cutoff; }
+
+    public int getRequestsArchived() { return requestsArchived; }
+    public void setRequestsArchived(int requestsArchived) { this.requestsArchived = requestsArchived; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
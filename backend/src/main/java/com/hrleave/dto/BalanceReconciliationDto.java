@@ -0,0 +1,82 @@
+package com.hrleave.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BalanceReconciliationDto {
+    private int year;
+    private boolean corrected;
+    private int balancesChecked;
+    private int driftedBalances;
+    private int correctedBalances;
+
+    // Drifted balances that changed while being checked; left for the next run
+    private int skippedBalances;
+    private long durationMs;
+
+    // First drifts found, capped so a badly drifted table does not produce a huge report
+    private List<Drift> drifts = new ArrayList<>();
+
+    public static class Drift {
+        private Long userId;
+        private String type;
+        private int recorded;
+        private int expected;
+
+        // Constructors
+        public Drift() {}
+
+        public Drift(Long userId, String type, int recorded, int expected) {
+            this.userId = userId;
+            this.type = type;
+            this.recorded = recorded;
+            this.expected = expected;
+        }
+
+        // Getters and Setters
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public int getRecorded() { return recorded; }
+        public void setRecorded(int recorded) { this.recorded = recorded; }
+
+        public int getExpected() { return expected; }
+        public void setExpected(int expected) { this.expected = expected; }
+    }
+
+    // Constructors
+    public BalanceReconciliationDto() {}
+
+    public BalanceReconciliationDto(int year, boolean corrected) {
+        this.year = year;
+        this.corrected = corrected;
+    }
+
+    // Getters and Setters
+    public int getYear() { return year; }
+    public void setYear(int year) { this.year = year; }
+
+    public boolean isCorrected() { return corrected; }
+    public void setCorrected(boolean corrected) { this.corrected = corrected; }
+
+    public int getBalancesChecked() { return balancesChecked; }
+    public void setBalancesChecked(int balancesChecked) { this.balancesChecked = balancesChecked; }
+
+    public int getDriftedBalances() { return driftedBalances; }
+    public void setDriftedBalances(int driftedBalances) { this.driftedBalances = driftedBalances; }
+
+    public int getCorrectedBalances() { return correctedBalances; }
+    public void setCorrectedBalances(int correctedBalances) { this.correctedBalances = correctedBalances; }
+
+    public int getSkippedBalances() { return skippedBalances; }
+    public void setSkippedBalances(int skippedBalances) { this.skippedBalances = skippedBalances; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public List<Drift> getDrifts() { return drifts; }
+    public void setDrifts(List<Drift> drifts) { this.drifts = drifts; }
+}
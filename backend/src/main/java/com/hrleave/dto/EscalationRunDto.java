@@ -0,0 +1,37 @@
+package com.hrleave.dto;
+
+public class EscalationRunDto {
+    // Pending requests older than the cutoff that were looked at
+    private int requestsChecked;
+    private int escalated;
+    private int autoApproved;
+
+    // Auto-approvals refused by the normal approval checks (coverage, no longer pending); retried next run
+    private int failed;
+
+    // Managers sent one escalation digest each
+    private int managersNotified;
+    private long durationMs;
+
+    // Constructors
+    public EscalationRunDto() {}
+
+    // Getters and Setters
+    public int getRequestsChecked() { return requestsChecked; }
+    public void setRequestsChecked(int requestsChecked) { this.requestsChecked = requestsChecked; }
+
+    public int getEscalated() { return escalated; }
+    public void setEscalated(int escalated) { this.escalated = escalated; }
+
+    public int getAutoApproved() { return autoApproved; }
+    public void setAutoApproved(int autoApproved) { this.autoApproved = autoApproved; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public int getManagersNotified() { return managersNotified; }
+    public void setManagersNotified(int managersNotified) { this.managersNotified = managersNotified; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
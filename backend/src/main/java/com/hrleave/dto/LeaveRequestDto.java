@@ -42,6 +42,10 @@ public class LeaveRequestDto {
     private String reviewerFirstName;
     private String reviewerLastName;
 
+    // Set once the request has been escalated past the requester's manager
+    private Long escalatedToId;
+    private LocalDateTime escalatedAt;
+
     // Constructors
     public LeaveRequestDto() {}
 
@@ -96,4 +100,10 @@ public class LeaveRequestDto {
 
     public String getReviewerLastName() { return reviewerLastName; }
     public void setReviewerLastName(String reviewerLastName) { this.reviewerLastName = reviewerLastName; }
+
+    public Long getEscalatedToId() { return escalatedToId; }
+    public void setEscalatedToId(Long escalatedToId) { this.escalatedToId = escalatedToId; }
+
+    public LocalDateTime getEscalatedAt() { return escalatedAt; }
+    public void setEscalatedAt(LocalDateTime escalatedAt) { this.escalatedAt = escalatedAt; }
 }
\ No newline at end of file
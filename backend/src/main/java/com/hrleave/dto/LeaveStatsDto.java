@@ -0,0 +1,36 @@
+package com.hrleave.dto;
+
+import java.util.Map;
+
+public class LeaveStatsDto {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byType;
+
+    // Status counts per department
+    private Map<String, Map<String, Long>> byDepartment;
+
+    // Constructors
+    public LeaveStatsDto() {}
+
+    public LeaveStatsDto(long total, Map<String, Long> byStatus, Map<String, Long> byType,
+                         Map<String, Map<String, Long>> byDepartment) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byType = byType;
+        this.byDepartment = byDepartment;
+    }
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<String, Long> byStatus) { this.byStatus = byStatus; }
+
+    public Map<String, Long> getByType() { return byType; }
+    public void setByType(Map<String, Long> byType) { this.byType = byType; }
+
+    public Map<String, Map<String, Long>> getByDepartment() { return byDepartment; }
+    public void setByDepartment(Map<String, Map<String, Long>> byDepartment) { this.byDepartment = byDepartment; }
+}
@@ -0,0 +1,21 @@
+package com.hrleave.dto;
+
+public class ReadModelRunDto {
+    // Rows of leave_request_views written from leave_requests
+    private int requestsWritten;
+    private int chunks;
+    private long durationMs;
+
+    // Constructors
+    public ReadModelRunDto() {}
+
+    // Getters and Setters
+    public int getRequestsWritten() { return requestsWritten; }
+    public void setRequestsWritten(int requestsWritten) { this.requestsWritten = requestsWritten; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
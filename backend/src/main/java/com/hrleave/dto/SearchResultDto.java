@@ -0,0 +1,67 @@
+package com.hrleave.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchResultDto {
+    private String query;
+    private int page;
+    private int size;
+
+    // Matching documents over all pages
+    private long total;
+
+    // Best match first
+    private List<Hit> hits = new ArrayList<>();
+
+    public static class Hit {
+        // "leave-request" or "audit"
+        private String type;
+        private Long id;
+        private float score;
+
+        // Constructors
+        public Hit() {}
+
+        public Hit(String type, Long id, float score) {
+            this.type = type;
+            this.id = id;
+            this.score = score;
+        }
+
+        // Getters and Setters
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public float getScore() { return score; }
+        public void setScore(float score) { this.score = score; }
+    }
+
+    // Constructors
+    public SearchResultDto() {}
+
+    public SearchResultDto(String query, int page, int size) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+    }
+
+    // Getters and Setters
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public List<Hit> getHits() { return hits; }
+    public void setHits(List<Hit> hits) { this.hits = hits; }
+}
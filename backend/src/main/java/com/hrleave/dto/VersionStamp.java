@@ -0,0 +1,29 @@
+package com.hrleave.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Cheap fingerprint of a resource, used as its ETag and Last-Modified
+public class VersionStamp {
+    private String tag;
+    private LocalDateTime lastModified;
+
+    // Constructors
+    public VersionStamp() {}
+
+    public VersionStamp(String tag, LocalDateTime lastModified) {
+        this.tag = tag;
+        this.lastModified = lastModified;
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    // Getters and Setters
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+
+    public LocalDateTime getLastModified() { return lastModified; }
+    public void setLastModified(LocalDateTime lastModified) { this.lastModified = lastModified; }
+}
@@ -0,0 +1,97 @@
+package com.hrleave.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Closed leave request moved to leave_requests_archive by LeaveArchiveService, under its original id.
+// Rows are written by the archival job in SQL only, so the entity is read-only.
+@Entity
+@Immutable
+@Table(name = "leave_requests_archive")
+public class ArchivedLeaveRequest {
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LeaveRequest.LeaveType type;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    private Integer days;
+
+    @Column(length = 500)
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LeaveRequest.Status status;
+
+    @Column(name = "submitted_at")
+    private LocalDateTime submittedAt;
+
+    @Column(name = "reviewed_at")
+    private LocalDateTime reviewedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reviewed_by")
+    private User reviewedBy;
+
+    @Column(name = "reviewer_comments", length = 500)
+    private String reviewerComments;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "escalated_to")
+    private User escalatedTo;
+
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedLeaveRequest() {}
+
+    // Getters
+    public Long getId() { return id; }
+
+    public User getUser() { return user; }
+
+    public LeaveRequest.LeaveType getType() { return type; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+
+    public Integer getDays() { return days; }
+
+    public String getReason() { return reason; }
+
+    public LeaveRequest.Status getStatus() { return status; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public LocalDateTime getReviewedAt() { return reviewedAt; }
+
+    public User getReviewedBy() { return reviewedBy; }
+
+    public String getReviewerComments() { return reviewerComments; }
+
+    public User getEscalatedTo() { return escalatedTo; }
+
+    public LocalDateTime getEscalatedAt() { return escalatedAt; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -0,0 +1,104 @@
+package com.hrleave.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Outcome of a request sent with an Idempotency-Key, replayed when the client retries with the same key
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@IdClass(IdempotencyRecord.Key.class)
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    // SHA-256 of the operation and request body, so a key cannot be reused for a different request
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    // Null while the first request is still running
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(Long userId, String idempotencyKey, String requestHash,
+                             LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+
+    public Integer getStatusCode() { return statusCode; }
+    public void setStatusCode(Integer statusCode) { this.statusCode = statusCode; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private String idempotencyKey;
+
+        public Key() {}
+
+        public Key(Long userId, String idempotencyKey) {
+            this.userId = userId;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(userId, key.userId) && Objects.equals(idempotencyKey, key.idempotencyKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, idempotencyKey);
+        }
+    }
+}
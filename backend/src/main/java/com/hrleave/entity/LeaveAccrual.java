@@ -0,0 +1,89 @@
+package com.hrleave.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Days credited to a user's leave balance by one accrual run; at most one row per user and period
+@Entity
+@Table(name = "leave_accruals")
+@IdClass(LeaveAccrual.Key.class)
+public class LeaveAccrual {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // First day of the month accrued up to
+    @Id
+    @Column(name = "period")
+    private LocalDate period;
+
+    // Months covered, more than one when earlier periods were caught up
+    @Column(nullable = false)
+    private Integer months;
+
+    @Column(name = "annual_days", nullable = false)
+    private Integer annualDays;
+
+    @Column(name = "sick_days", nullable = false)
+    private Integer sickDays;
+
+    @Column(name = "personal_days", nullable = false)
+    private Integer personalDays;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public LeaveAccrual() {}
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getPeriod() { return period; }
+    public void setPeriod(LocalDate period) { this.period = period; }
+
+    public Integer getMonths() { return months; }
+    public void setMonths(Integer months) { this.months = months; }
+
+    public Integer getAnnualDays() { return annualDays; }
+    public void setAnnualDays(Integer annualDays) { this.annualDays = annualDays; }
+
+    public Integer getSickDays() { return sickDays; }
+    public void setSickDays(Integer sickDays) { this.sickDays = sickDays; }
+
+    public Integer getPersonalDays() { return personalDays; }
+    public void setPersonalDays(Integer personalDays) { this.personalDays = personalDays; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate period;
+
+        public Key() {}
+
+        public Key(Long userId, LocalDate period) {
+            this.userId = userId;
+            this.period = period;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(userId, key.userId) && Objects.equals(period, key.period);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, period);
+        }
+    }
+}
@@ -2,18 +2,25 @@ package com.hrleave.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "leave_balances")
+@Table(name = "leave_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_leave_balances_user_year", columnNames = {"user_id", "year"})
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class LeaveBalance {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", unique = true)
+    // One balance per user and year
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
     private User user;
 
     @Min(0)
@@ -49,6 +56,11 @@ public class LeaveBalance {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Checked by every entity update; the accrual and reconciliation JDBC updates bump it too, so a balance read
+    // before one of them cannot be saved back over it
+    @Version
+    private Long version;
+
     // Constructors
     public LeaveBalance() {}
 
@@ -91,6 +103,9 @@ public class LeaveBalance {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -9,7 +9,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "leave_requests")
+@Table(name = "leave_requests", indexes = {
+        @Index(name = "idx_leave_requests_user_status_dates", columnList = "user_id, status, start_date, end_date")
+})
 public class LeaveRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -55,12 +57,27 @@ public class LeaveRequest {
     @Column(name = "reviewer_comments", length = 500)
     private String reviewerComments;
 
+    // Manager above the requester's own one, once the request has been left pending too long
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "escalated_to")
+    private User escalatedTo;
+
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
+
+    @Column(nullable = false)
+    private Integer escalations = 0;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Checked by every entity update; status transitions are conditional UPDATEs that also bump it
+    @Version
+    private Long version;
+
     public enum LeaveType {
         ANNUAL, SICK, PERSONAL, MATERNITY, EMERGENCY
     }
@@ -121,12 +138,24 @@ public class LeaveRequest {
     public String getReviewerComments() { return reviewerComments; }
     public void setReviewerComments(String reviewerComments) { this.reviewerComments = reviewerComments; }
 
+    public User getEscalatedTo() { return escalatedTo; }
+    public void setEscalatedTo(User escalatedTo) { this.escalatedTo = escalatedTo; }
+
+    public LocalDateTime getEscalatedAt() { return escalatedAt; }
+    public void setEscalatedAt(LocalDateTime escalatedAt) { this.escalatedAt = escalatedAt; }
+
+    public Integer getEscalations() { return escalations; }
+    public void setEscalations(Integer escalations) { this.escalations = escalations; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,123 @@
+package com.hrleave.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Row of the denormalized read model: a leave request flattened with its requester and reviewer, as served by the
+// list endpoints. Rows are written in SQL by LeaveRequestViewService only, so the entity is read-only.
+@Entity
+@Immutable
+@Table(name = "leave_request_views")
+public class LeaveRequestView {
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "user_first_name")
+    private String userFirstName;
+
+    @Column(name = "user_last_name")
+    private String userLastName;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(name = "manager_id")
+    private Long managerId;
+
+    private String department;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LeaveRequest.LeaveType type;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    private Integer days;
+
+    @Column(length = 500)
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LeaveRequest.Status status;
+
+    @Column(name = "submitted_at")
+    private LocalDateTime submittedAt;
+
+    @Column(name = "reviewed_at")
+    private LocalDateTime reviewedAt;
+
+    @Column(name = "reviewer_comments", length = 500)
+    private String reviewerComments;
+
+    @Column(name = "reviewed_by")
+    private Long reviewedById;
+
+    @Column(name = "reviewer_first_name")
+    private String reviewerFirstName;
+
+    @Column(name = "reviewer_last_name")
+    private String reviewerLastName;
+
+    @Column(name = "escalated_to")
+    private Long escalatedToId;
+
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
+
+    // Constructors
+    public LeaveRequestView() {}
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Long getUserId() { return userId; }
+
+    public String getUserFirstName() { return userFirstName; }
+
+    public String getUserLastName() { return userLastName; }
+
+    public String getUserEmail() { return userEmail; }
+
+    public Long getManagerId() { return managerId; }
+
+    public String getDepartment() { return department; }
+
+    public LeaveRequest.LeaveType getType() { return type; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+
+    public Integer getDays() { return days; }
+
+    public String getReason() { return reason; }
+
+    public LeaveRequest.Status getStatus() { return status; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public LocalDateTime getReviewedAt() { return reviewedAt; }
+
+    public String getReviewerComments() { return reviewerComments; }
+
+    public Long getReviewedById() { return reviewedById; }
+
+    public String getReviewerFirstName() { return reviewerFirstName; }
+
+    public String getReviewerLastName() { return reviewerLastName; }
+
+    public Long getEscalatedToId() { return escalatedToId; }
+
+    public LocalDateTime getEscalatedAt() { return escalatedAt; }
+}
@@ -0,0 +1,69 @@
+package com.hrleave.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+@Table(name = "org_closure", indexes = {
+        @Index(name = "idx_org_closure_descendant", columnList = "descendant_id, depth")
+})
+@IdClass(OrgClosure.Key.class)
+public class OrgClosure {
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    // 0 for the self row, 1 for a direct report, 2 for a skip-level report, ...
+    @Column(nullable = false)
+    private Integer depth;
+
+    // Constructors
+    public OrgClosure() {}
+
+    public OrgClosure(Long ancestorId, Long descendantId, Integer depth) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+        this.depth = depth;
+    }
+
+    // Getters and Setters
+    public Long getAncestorId() { return ancestorId; }
+    public void setAncestorId(Long ancestorId) { this.ancestorId = ancestorId; }
+
+    public Long getDescendantId() { return descendantId; }
+    public void setDescendantId(Long descendantId) { this.descendantId = descendantId; }
+
+    public Integer getDepth() { return depth; }
+    public void setDepth(Integer depth) { this.depth = depth; }
+
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+
+        public Key() {}
+
+        public Key(Long ancestorId, Long descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
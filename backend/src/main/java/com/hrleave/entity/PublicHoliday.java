@@ -0,0 +1,66 @@
+package com.hrleave.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "public_holidays", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_public_holidays_calendar_date", columnNames = {"calendar_code", "holiday_date"})
+})
+public class PublicHoliday {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 20)
+    @Column(name = "calendar_code", length = 20)
+    private String calendarCode;
+
+    @NotNull
+    @Column(name = "holiday_date")
+    private LocalDate holidayDate;
+
+    @NotBlank
+    @Size(max = 100)
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PublicHoliday() {}
+
+    public PublicHoliday(String calendarCode, LocalDate holidayDate, String name) {
+        this.calendarCode = calendarCode;
+        this.holidayDate = holidayDate;
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCalendarCode() { return calendarCode; }
+    public void setCalendarCode(String calendarCode) { this.calendarCode = calendarCode; }
+
+    public LocalDate getHolidayDate() { return holidayDate; }
+    public void setHolidayDate(LocalDate holidayDate) { this.holidayDate = holidayDate; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,9 +1,12 @@
 package com.hrleave.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +18,10 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// A manager that was not loaded yet is serialized through its Hibernate proxy
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -42,6 +49,7 @@ public class User implements UserDetails {
     @Column(length = 20)
     private Role role;
 
+    // The cached User entry holds the manager id, so the proxy is resolved from the cache too
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private User manager;
@@ -53,6 +61,10 @@ public class User implements UserDetails {
     @Column(name = "join_date")
     private LocalDate joinDate;
 
+    @Size(max = 20)
+    @Column(name = "holiday_calendar", length = 20)
+    private String holidayCalendar;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -139,6 +151,9 @@ public class User implements UserDetails {
     public LocalDate getJoinDate() { return joinDate; }
     public void setJoinDate(LocalDate joinDate) { this.joinDate = joinDate; }
 
+    public String getHolidayCalendar() { return holidayCalendar; }
+    public void setHolidayCalendar(String holidayCalendar) { this.holidayCalendar = holidayCalendar; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,73 @@
+package com.hrleave.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+// Logs endpoints that run too many SQL statements or spend too long in SQL
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryGuardFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryGuardFilter.class);
+
+    @Value("${app.query-guard.max-statements:20}")
+    private int maxStatements;
+
+    @Value("${app.query-guard.max-sql-time-ms:500}")
+    private long maxSqlTimeMs;
+
+    // Integration and load tests read this header to detect statement counts growing with result size (N+1)
+    @Value("${app.query-guard.expose-header:false}")
+    private boolean exposeHeader;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        // Buffer the body so statements issued while serializing are counted before the header is sent
+        // (never for event streams, which must reach the client as they are written)
+        ContentCachingResponseWrapper buffered = exposeHeader && !isEventStream(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            QueryStats.end();
+            if (buffered != null) {
+                buffered.setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.getStatements()));
+                buffered.copyBodyToResponse();
+            }
+            if (stats.getStatements() > maxStatements || stats.getSqlMillis() > maxSqlTimeMs) {
+                logger.warn("Query guard: {} {} ran {} statements in {} ms of SQL (user: {})",
+                        request.getMethod(), endpoint(request), stats.getStatements(), stats.getSqlMillis(),
+                        stats.getUsername() != null ? stats.getUsername() : "anonymous");
+            }
+        }
+    }
+
+    private boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,45 @@
+package com.hrleave.monitoring;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+// Per-request SQL statement count and time, bound to the request thread by QueryGuardFilter
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long sqlNanos;
+    private String username;
+
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(long nanos) {
+        statements++;
+        sqlNanos += nanos;
+        if (username == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                username = authentication.getName();
+            }
+        }
+    }
+
+    public int getStatements() { return statements; }
+
+    public long getSqlMillis() { return sqlNanos / 1_000_000; }
+
+    public String getUsername() { return username; }
+}
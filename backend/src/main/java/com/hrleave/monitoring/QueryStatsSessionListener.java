@@ -0,0 +1,37 @@
+package com.hrleave.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+// Registered through hibernate.session.events.auto; Hibernate creates one instance per session
+public class QueryStatsSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private void record(long start) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.record(System.nanoTime() - start);
+        }
+    }
+}
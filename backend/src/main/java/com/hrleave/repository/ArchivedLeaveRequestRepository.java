@@ -0,0 +1,47 @@
+package com.hrleave.repository;
+
+import com.hrleave.entity.ArchivedLeaveRequest;
+import com.hrleave.entity.LeaveRequest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Read side of leave_requests_archive; rows are moved in by LeaveArchiveService in SQL
+@Repository
+public interface ArchivedLeaveRequestRepository extends JpaRepository<ArchivedLeaveRequest, Long> {
+    @Query("SELECT a FROM ArchivedLeaveRequest a JOIN FETCH a.user LEFT JOIN FETCH a.reviewedBy WHERE a.id = :id")
+    Optional<ArchivedLeaveRequest> findWithUsersById(@Param("id") Long id);
+
+    @Query("SELECT a FROM ArchivedLeaveRequest a JOIN FETCH a.user LEFT JOIN FETCH a.reviewedBy " +
+           "WHERE a.user.id = :userId AND a.startDate <= :endDate AND a.endDate >= :startDate ORDER BY a.startDate")
+    List<ArchivedLeaveRequest> findByUserIdOverlapping(@Param("userId") Long userId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT a.user.department, a.status, a.type, COUNT(a) FROM ArchivedLeaveRequest a " +
+           "GROUP BY a.user.department, a.status, a.type")
+    List<Object[]> countGroupedByDepartmentStatusAndType();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.user.department, a.type, a.startDate, a.endDate FROM ArchivedLeaveRequest a " +
+           "WHERE a.status = :status AND a.startDate <= :endDate AND a.endDate >= :startDate")
+    Stream<Object[]> streamAbsences(@Param("status") LeaveRequest.Status status,
+                                    @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Rows: [user id, type, sum of days], one aggregate per range of users
+    @Query("SELECT a.user.id, a.type, SUM(a.days) FROM ArchivedLeaveRequest a WHERE a.user.id BETWEEN :fromUserId AND :toUserId " +
+           "AND a.status = :status AND a.startDate >= :startDate AND a.startDate <= :endDate " +
+           "GROUP BY a.user.id, a.type")
+    List<Object[]> sumDaysGroupedByUserAndType(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                                               @Param("status") LeaveRequest.Status status,
+                                               @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
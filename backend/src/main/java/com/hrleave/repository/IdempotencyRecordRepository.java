@@ -0,0 +1,41 @@
+package com.hrleave.repository;
+
+import com.hrleave.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Modifying queries carry their own read-write transaction: they run outside the business transaction
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :responseBody " +
+           "WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int complete(@Param("userId") Long userId, @Param("key") String key,
+                 @Param("statusCode") Integer statusCode, @Param("responseBody") String responseBody);
+
+    // Takes over a claim whose request never completed (e.g. the instance died mid-request)
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :now WHERE r.userId = :userId AND r.idempotencyKey = :key " +
+           "AND r.statusCode IS NULL AND r.createdAt = :claimedAt")
+    int reclaim(@Param("userId") Long userId, @Param("key") String key,
+                @Param("claimedAt") LocalDateTime claimedAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int release(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
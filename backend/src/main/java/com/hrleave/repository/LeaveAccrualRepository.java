@@ -0,0 +1,19 @@
+package com.hrleave.repository;
+
+import com.hrleave.entity.LeaveAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface LeaveAccrualRepository extends JpaRepository<LeaveAccrual, LeaveAccrual.Key> {
+    // Rows: [user id, latest period accrued since startDate]
+    @Query("SELECT a.userId, MAX(a.period) FROM LeaveAccrual a WHERE a.userId BETWEEN :fromUserId AND :toUserId " +
+           "AND a.period >= :startDate GROUP BY a.userId")
+    List<Object[]> findLastPeriods(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                                   @Param("startDate") LocalDate startDate);
+}
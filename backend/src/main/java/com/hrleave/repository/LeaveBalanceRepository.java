@@ -1,19 +1,48 @@
 package com.hrleave.repository;
 
 import com.hrleave.entity.LeaveBalance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
-    Optional<LeaveBalance> findByUserId(Long userId);
-    
+
+    // Own query cache region, so that balances written with plain JDBC can drop the cached lookups with it
+    String QUERY_REGION = "leave-balance-queries";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_REGION)
+    })
     Optional<LeaveBalance> findByUserIdAndYear(Long userId, Integer year);
     
     @Query("SELECT lb FROM LeaveBalance lb WHERE lb.user.id = :userId AND lb.year = :year")
     Optional<LeaveBalance> findCurrentYearBalance(@Param("userId") Long userId, @Param("year") Integer year);
+
+    @Query("SELECT lb.updatedAt FROM LeaveBalance lb WHERE lb.user.id = :userId AND lb.year = :year")
+    Optional<LocalDateTime> findUpdatedAt(@Param("userId") Long userId, @Param("year") Integer year);
+
+    @Query("SELECT lb.user.id FROM LeaveBalance lb WHERE lb.year = :year ORDER BY lb.user.id")
+    List<Long> findUserIdsByYear(@Param("year") Integer year);
+
+    // Rows: [id, user id, usedAnnual, usedSick, usedPersonal, updatedAt]
+    @Query("SELECT lb.id, lb.user.id, lb.usedAnnual, lb.usedSick, lb.usedPersonal, lb.updatedAt FROM LeaveBalance lb " +
+           "WHERE lb.user.id BETWEEN :fromUserId AND :toUserId AND lb.year = :year")
+    List<Object[]> findUsedCounters(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                                    @Param("year") Integer year);
+
+    // Rows: [balance id, user id, department, joinDate] of the enabled users holding a balance for the year
+    @Query("SELECT lb.id, u.id, u.department, u.joinDate FROM LeaveBalance lb JOIN lb.user u " +
+           "WHERE u.id BETWEEN :fromUserId AND :toUserId AND lb.year = :year AND u.enabled = true")
+    List<Object[]> findAccrualTargets(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                                      @Param("year") Integer year);
 }
\ No newline at end of file
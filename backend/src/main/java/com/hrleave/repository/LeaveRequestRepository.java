@@ -2,34 +2,114 @@ package com.hrleave.repository;
 
 import com.hrleave.entity.LeaveRequest;
 import com.hrleave.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
     List<LeaveRequest> findByUserId(Long userId);
+
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.startDate <= :endDate AND lr.endDate >= :startDate")
+    List<LeaveRequest> findByUserIdOverlapping(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    // Single row: [request count, latest updatedAt]
+    @Query("SELECT COUNT(lr), MAX(lr.updatedAt) FROM LeaveRequest lr WHERE lr.user.id = :userId")
+    List<Object[]> findVersionByUserId(@Param("userId") Long userId);
     
     List<LeaveRequest> findByStatus(LeaveRequest.Status status);
     
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user WHERE lr.status = :status")
+    List<LeaveRequest> findByStatusWithUser(@Param("status") LeaveRequest.Status status);
+    
     List<LeaveRequest> findByUserIdAndStatus(Long userId, LeaveRequest.Status status);
     
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.manager.id = :managerId")
     List<LeaveRequest> findByManagerId(@Param("managerId") Long managerId);
     
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.manager.id = :managerId AND lr.status = :status")
+    // Requests of the manager's direct reports, plus those escalated to the manager
+    @Query("SELECT lr FROM LeaveRequest lr WHERE (lr.user.manager.id = :managerId OR lr.escalatedTo.id = :managerId) " +
+           "AND lr.status = :status")
     List<LeaveRequest> findByManagerIdAndStatus(@Param("managerId") Long managerId, @Param("status") LeaveRequest.Status status);
     
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user WHERE lr.user.id IN " +
+           "(SELECT c.descendantId FROM OrgClosure c WHERE c.ancestorId = :managerId AND c.depth > 0)")
+    List<LeaveRequest> findByOrganization(@Param("managerId") Long managerId);
+    
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user WHERE lr.status = :status AND lr.user.id IN " +
+           "(SELECT c.descendantId FROM OrgClosure c WHERE c.ancestorId = :managerId AND c.depth > 0)")
+    List<LeaveRequest> findByOrganizationAndStatus(@Param("managerId") Long managerId, @Param("status") LeaveRequest.Status status);
+    
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate >= :startDate AND lr.endDate <= :endDate")
     List<LeaveRequest> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.startDate >= :startDate AND lr.endDate <= :endDate")
     List<LeaveRequest> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    @Query("SELECT COUNT(lr) > 0 FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.status IN :statuses " +
+           "AND lr.startDate <= :endDate AND lr.endDate >= :startDate AND (:excludeId IS NULL OR lr.id <> :excludeId)")
+    boolean existsOverlapping(@Param("userId") Long userId, @Param("statuses") Collection<LeaveRequest.Status> statuses,
+                              @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                              @Param("excludeId") Long excludeId);
+    
+    @Query("SELECT lr.user.department, lr.status, lr.type, COUNT(lr) FROM LeaveRequest lr " +
+           "GROUP BY lr.user.department, lr.status, lr.type")
+    List<Object[]> countGroupedByDepartmentStatusAndType();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT lr.user.department, lr.type, lr.startDate, lr.endDate FROM LeaveRequest lr " +
+           "WHERE lr.status = :status AND lr.startDate <= :endDate AND lr.endDate >= :startDate")
+    Stream<Object[]> streamAbsences(@Param("status") LeaveRequest.Status status,
+                                    @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // Rows: [user id, type, sum of days], one aggregate per range of users
+    @Query("SELECT lr.user.id, lr.type, SUM(lr.days) FROM LeaveRequest lr WHERE lr.user.id BETWEEN :fromUserId AND :toUserId " +
+           "AND lr.status = :status AND lr.startDate >= :startDate AND lr.startDate <= :endDate " +
+           "GROUP BY lr.user.id, lr.type")
+    List<Object[]> sumDaysGroupedByUserAndType(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                                               @Param("status") LeaveRequest.Status status,
+                                               @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // Keyset page, oldest first, of requests submitted before the cutoff and after (afterSubmittedAt, afterId)
+    // that have been escalated fewer than maxEscalations times, unless includeFullyEscalated
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user u LEFT JOIN FETCH u.manager LEFT JOIN FETCH lr.escalatedTo " +
+           "WHERE lr.status = :status AND lr.submittedAt < :cutoff " +
+           "AND (lr.submittedAt > :afterSubmittedAt OR (lr.submittedAt = :afterSubmittedAt AND lr.id > :afterId)) " +
+           "AND (lr.escalations < :maxEscalations OR :includeFullyEscalated = true) " +
+           "ORDER BY lr.submittedAt, lr.id")
+    List<LeaveRequest> findStalePage(@Param("status") LeaveRequest.Status status, @Param("cutoff") LocalDateTime cutoff,
+                                     @Param("afterSubmittedAt") LocalDateTime afterSubmittedAt, @Param("afterId") Long afterId,
+                                     @Param("maxEscalations") int maxEscalations,
+                                     @Param("includeFullyEscalated") boolean includeFullyEscalated, Pageable pageable);
+    
+    // Status transitions only apply to the exact row that was checked: 0 rows when another transaction changed it first
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveRequest lr SET lr.status = :status, lr.reviewedAt = :reviewedAt, lr.reviewedBy = :reviewer, " +
+           "lr.reviewerComments = :comments, lr.updatedAt = :reviewedAt, lr.version = lr.version + 1 " +
+           "WHERE lr.id = :id AND lr.status = :expected AND lr.version = :version")
+    int review(@Param("id") Long id, @Param("expected") LeaveRequest.Status expected, @Param("version") Long version,
+               @Param("status") LeaveRequest.Status status, @Param("reviewer") User reviewer,
+               @Param("comments") String comments, @Param("reviewedAt") LocalDateTime reviewedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveRequest lr SET lr.status = :status, lr.updatedAt = :updatedAt, lr.version = lr.version + 1 " +
+           "WHERE lr.id = :id AND lr.status = :expected AND lr.version = :version")
+    int transition(@Param("id") Long id, @Param("expected") LeaveRequest.Status expected, @Param("version") Long version,
+                   @Param("status") LeaveRequest.Status status, @Param("updatedAt") LocalDateTime updatedAt);
+    
     @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.status = :status")
     Long countByStatus(@Param("status") LeaveRequest.Status status);
 }
\ No newline at end of file
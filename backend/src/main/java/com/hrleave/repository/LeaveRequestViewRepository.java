@@ -0,0 +1,37 @@
+package com.hrleave.repository;
+
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.LeaveRequestView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Read side of leave_request_views; every query is a scan of one of its indexes, without joins
+@Repository
+public interface LeaveRequestViewRepository extends JpaRepository<LeaveRequestView, Long> {
+    List<LeaveRequestView> findByUserId(Long userId);
+
+    @Query("SELECT v FROM LeaveRequestView v WHERE v.userId = :userId AND v.startDate <= :endDate AND v.endDate >= :startDate")
+    List<LeaveRequestView> findByUserIdOverlapping(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+
+    List<LeaveRequestView> findByManagerId(Long managerId);
+
+    List<LeaveRequestView> findByManagerIdAndStatus(Long managerId, LeaveRequest.Status status);
+
+    List<LeaveRequestView> findByEscalatedToIdAndStatus(Long escalatedToId, LeaveRequest.Status status);
+
+    // The organization is resolved through the closure table, then requests are read by requester
+    @Query("SELECT v FROM LeaveRequestView v WHERE v.userId IN " +
+           "(SELECT c.descendantId FROM OrgClosure c WHERE c.ancestorId = :managerId AND c.depth > 0)")
+    List<LeaveRequestView> findByOrganization(@Param("managerId") Long managerId);
+
+    @Query("SELECT v FROM LeaveRequestView v WHERE v.status = :status AND v.userId IN " +
+           "(SELECT c.descendantId FROM OrgClosure c WHERE c.ancestorId = :managerId AND c.depth > 0)")
+    List<LeaveRequestView> findByOrganizationAndStatus(@Param("managerId") Long managerId,
+                                                       @Param("status") LeaveRequest.Status status);
+}
@@ -0,0 +1,33 @@
+package com.hrleave.repository;
+
+import com.hrleave.entity.OrgClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrgClosureRepository extends JpaRepository<OrgClosure, OrgClosure.Key> {
+    // Ancestors of a user including the self row, nearest first
+    @Query("SELECT c FROM OrgClosure c WHERE c.descendantId = :userId ORDER BY c.depth")
+    List<OrgClosure> findAncestors(@Param("userId") Long userId);
+
+    // Subtree of a user including the self row
+    @Query("SELECT c FROM OrgClosure c WHERE c.ancestorId = :userId")
+    List<OrgClosure> findSubtree(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(c) > 0 FROM OrgClosure c WHERE c.ancestorId = :ancestorId AND c.descendantId = :descendantId")
+    boolean isAncestor(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    @Modifying
+    @Query("DELETE FROM OrgClosure c WHERE c.ancestorId IN :ancestorIds AND c.descendantId IN :descendantIds")
+    int deletePaths(@Param("ancestorIds") Collection<Long> ancestorIds, @Param("descendantIds") Collection<Long> descendantIds);
+
+    @Modifying
+    @Query("DELETE FROM OrgClosure c WHERE c.ancestorId = :userId OR c.descendantId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
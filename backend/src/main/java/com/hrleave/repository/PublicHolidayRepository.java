@@ -0,0 +1,30 @@
+package com.hrleave.repository;
+
+import com.hrleave.entity.PublicHoliday;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PublicHolidayRepository extends JpaRepository<PublicHoliday, Long> {
+    @Query("SELECT ph.holidayDate FROM PublicHoliday ph WHERE ph.calendarCode = :calendarCode " +
+           "AND ph.holidayDate >= :startDate AND ph.holidayDate <= :endDate")
+    List<LocalDate> findHolidayDates(@Param("calendarCode") String calendarCode,
+                                     @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // A locking read returns the latest committed holidays even when the transaction's snapshot is older
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT ph FROM PublicHoliday ph WHERE ph.calendarCode = :calendarCode " +
+           "AND ph.holidayDate >= :startDate AND ph.holidayDate <= :endDate")
+    List<PublicHoliday> lockHolidays(@Param("calendarCode") String calendarCode,
+                                     @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    List<PublicHoliday> findByCalendarCodeAndHolidayDateBetweenOrderByHolidayDate(String calendarCode,
+                                                                                 LocalDate startDate, LocalDate endDate);
+}
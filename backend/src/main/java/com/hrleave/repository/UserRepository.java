@@ -1,8 +1,13 @@
 package com.hrleave.repository;
 
 import com.hrleave.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,9 +16,25 @@ import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // Own query cache region, expiring within seconds like the User region: writes on another instance are not
+    // propagated, and a disabled or demoted user must lose access quickly
+    String PRINCIPAL_QUERY_REGION = "user-principal-queries";
+
+    // Resolves the principal on every authenticated request
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PRINCIPAL_QUERY_REGION)
+    })
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
+
+    // Row lock serializing one user's leave request writes, so that two overlapping requests cannot both pass
+    // the overlap check before either is inserted
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> lockById(@Param("id") Long id);
     
     List<User> findByRole(User.Role role);
     
@@ -22,6 +43,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.manager.id = :managerId")
     List<User> findByManagerId(@Param("managerId") Long managerId);
     
+    @Query("SELECT u FROM User u WHERE u.id IN " +
+           "(SELECT c.descendantId FROM OrgClosure c WHERE c.ancestorId = :managerId AND c.depth > 0)")
+    List<User> findOrganizationMembers(@Param("managerId") Long managerId);
+    
+    @Query("SELECT u.id, m.id FROM User u LEFT JOIN u.manager m")
+    List<Object[]> findManagerLinks();
+    
+    @Query("SELECT u.department, COUNT(u) FROM User u GROUP BY u.department")
+    List<Object[]> countGroupedByDepartment();
+    
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.department = :department")
     List<User> findByRoleAndDepartment(@Param("role") User.Role role, @Param("department") String department);
 }
\ No newline at end of file
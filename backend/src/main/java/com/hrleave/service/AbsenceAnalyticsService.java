@@ -0,0 +1,303 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.AbsenceReportDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.repository.ArchivedLeaveRequestRepository;
+import com.hrleave.repository.LeaveRequestRepository;
+import com.hrleave.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class AbsenceAnalyticsService {
+
+    private static final LeaveRequest.LeaveType[] TYPES = LeaveRequest.LeaveType.values();
+    private static final int ROWS_PER_TASK = 50_000;
+    private static final long MAX_RANGE_YEARS = 10;
+    private static final String NO_DEPARTMENT = "UNASSIGNED";
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private ArchivedLeaveRequestRepository archivedLeaveRequestRepository;
+
+    @Autowired
+    private LeaveArchiveService leaveArchiveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leave.analytics.parallelism:0}")
+    private int parallelism;
+
+    @Value("${leave.holidays.default-calendar:DEFAULT}")
+    private String calendarCode;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        new ExecutorServiceMetrics(pool, "absence-analytics", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Transactional(readOnly = true)
+    public AbsenceReportDto getAbsenceReport(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (startDate.plusYears(MAX_RANGE_YEARS).isBefore(endDate)) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_RANGE_YEARS + " years");
+        }
+
+        Axis axis = new Axis(startDate, endDate, holidayCalendarService, calendarCode);
+
+        // Department dictionary, seeded with the headcount so empty departments still appear
+        Map<String, Integer> departmentIndex = new HashMap<>();
+        List<String> departments = new ArrayList<>();
+        List<Long> headcounts = new ArrayList<>();
+        for (Object[] row : userRepository.countGroupedByDepartment()) {
+            departmentIndex.put(department(row[0]), departments.size());
+            departments.add(department(row[0]));
+            headcounts.add((Long) row[1]);
+        }
+
+        // Columnar copy of the approved absences, clamped to the range
+        Columns columns = new Columns();
+        Consumer<Object[]> addRow = row -> {
+            String department = department(row[0]);
+            Integer index = departmentIndex.computeIfAbsent(department, d -> {
+                departments.add(d);
+                headcounts.add(0L);
+                return departments.size() - 1;
+            });
+            columns.add(index, ((LeaveRequest.LeaveType) row[1]).ordinal(),
+                    axis.offset((LocalDate) row[2]), axis.offset((LocalDate) row[3]));
+        };
+        try (Stream<Object[]> rows = leaveRequestRepository.streamAbsences(LeaveRequest.Status.APPROVED, startDate, endDate)) {
+            rows.forEach(addRow);
+        }
+        if (leaveArchiveService.includesArchive(startDate)) {
+            try (Stream<Object[]> rows = archivedLeaveRequestRepository.streamAbsences(LeaveRequest.Status.APPROVED,
+                    startDate, endDate)) {
+                rows.forEach(addRow);
+            }
+        }
+
+        // One partition per department, split further into row chunks, summed on the fork-join pool
+        int[] departmentStarts = columns.sortByDepartment(departments.size());
+        List<RecursiveTask<long[]>> tasks = new ArrayList<>();
+        for (int d = 0; d < departments.size(); d++) {
+            tasks.add(new PartitionTask(columns, axis, departmentStarts[d], departmentStarts[d + 1]));
+        }
+        List<long[]> results = pool.submit(() -> RecursiveTask.invokeAll(tasks).stream()
+                .map(RecursiveTask::join).toList()).join();
+
+        return buildReport(startDate, endDate, axis, departments, headcounts, results);
+    }
+
+    private AbsenceReportDto buildReport(LocalDate startDate, LocalDate endDate, Axis axis, List<String> departments,
+                                         List<Long> headcounts, List<long[]> results) {
+        int months = axis.months.size();
+        long[] headcount = headcounts.stream().mapToLong(Long::longValue).toArray();
+        long[][][] absenceDays = new long[departments.size()][months][TYPES.length];
+        double[][] absenceRate = new double[departments.size()][months];
+
+        for (int d = 0; d < departments.size(); d++) {
+            long[] cells = results.get(d);
+            for (int m = 0; m < months; m++) {
+                long total = 0;
+                for (int t = 0; t < TYPES.length; t++) {
+                    absenceDays[d][m][t] = cells[m * TYPES.length + t];
+                    total += absenceDays[d][m][t];
+                }
+                long capacity = headcount[d] * axis.workingDays[m];
+                absenceRate[d][m] = capacity > 0 ? (double) total / capacity : 0;
+            }
+        }
+
+        AbsenceReportDto report = new AbsenceReportDto();
+        report.setStartDate(startDate);
+        report.setEndDate(endDate);
+        report.setDepartments(departments);
+        report.setMonths(axis.months.stream().map(YearMonth::toString).toList());
+        report.setTypes(Arrays.stream(TYPES).map(Enum::name).toList());
+        report.setHeadcount(headcount);
+        report.setWorkingDays(axis.workingDays);
+        report.setAbsenceDays(absenceDays);
+        report.setAbsenceRate(absenceRate);
+        return report;
+    }
+
+    private static String department(Object value) {
+        return value != null ? (String) value : NO_DEPARTMENT;
+    }
+
+    // Day offsets of the report range, month boundaries and a working-day prefix sum over the range
+    private static final class Axis {
+        final LocalDate startDate;
+        final int span;
+        final int[] workingPrefix;
+        final int[] monthStart;
+        final int[] monthOf;
+        final int[] workingDays;
+        final List<YearMonth> months = new ArrayList<>();
+
+        Axis(LocalDate startDate, LocalDate endDate, HolidayCalendarService holidays, String calendarCode) {
+            this.startDate = startDate;
+            this.span = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+            for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+                months.add(month);
+            }
+
+            monthStart = new int[months.size() + 1];
+            for (int m = 1; m < months.size(); m++) {
+                monthStart[m] = offset(months.get(m).atDay(1));
+            }
+            monthStart[months.size()] = span;
+
+            monthOf = new int[span];
+            workingPrefix = new int[span + 1];
+            workingDays = new int[months.size()];
+            LocalDate day = startDate;
+            for (int i = 0, m = 0; i < span; i++, day = day.plusDays(1)) {
+                while (i >= monthStart[m + 1]) {
+                    m++;
+                }
+                monthOf[i] = m;
+                int working = holidays.countWorkingDays(calendarCode, day, day);
+                workingPrefix[i + 1] = workingPrefix[i] + working;
+                workingDays[m] += working;
+            }
+        }
+
+        int offset(LocalDate date) {
+            return (int) Math.max(0, Math.min(span - 1, ChronoUnit.DAYS.between(startDate, date)));
+        }
+    }
+
+    // Approved absences as parallel primitive columns
+    private static final class Columns {
+        int size;
+        int[] department = new int[1024];
+        int[] type = new int[1024];
+        int[] start = new int[1024];
+        int[] end = new int[1024];
+
+        void add(int departmentIndex, int typeIndex, int startOffset, int endOffset) {
+            if (size == department.length) {
+                int capacity = size * 2;
+                department = Arrays.copyOf(department, capacity);
+                type = Arrays.copyOf(type, capacity);
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+            }
+            department[size] = departmentIndex;
+            type[size] = typeIndex;
+            start[size] = startOffset;
+            end[size] = endOffset;
+            size++;
+        }
+
+        // Counting sort by department; returns the first row of each department (plus a final sentinel)
+        int[] sortByDepartment(int departments) {
+            int[] starts = new int[departments + 1];
+            for (int i = 0; i < size; i++) {
+                starts[department[i] + 1]++;
+            }
+            for (int d = 0; d < departments; d++) {
+                starts[d + 1] += starts[d];
+            }
+
+            int[] next = Arrays.copyOf(starts, departments);
+            int[] sortedType = new int[size];
+            int[] sortedStart = new int[size];
+            int[] sortedEnd = new int[size];
+            for (int i = 0; i < size; i++) {
+                int position = next[department[i]]++;
+                sortedType[position] = type[i];
+                sortedStart[position] = start[i];
+                sortedEnd[position] = end[i];
+            }
+            type = sortedType;
+            start = sortedStart;
+            end = sortedEnd;
+            return starts;
+        }
+    }
+
+    // Sums working days of absence per [month][type] for rows [from, to) of one department
+    private static final class PartitionTask extends RecursiveTask<long[]> {
+        private final Columns columns;
+        private final Axis axis;
+        private final int from;
+        private final int to;
+
+        PartitionTask(Columns columns, Axis axis, int from, int to) {
+            this.columns = columns;
+            this.axis = axis;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                PartitionTask left = new PartitionTask(columns, axis, from, middle);
+                left.fork();
+                long[] right = new PartitionTask(columns, axis, middle, to).compute();
+                long[] result = left.join();
+                for (int i = 0; i < result.length; i++) {
+                    result[i] += right[i];
+                }
+                return result;
+            }
+
+            long[] cells = new long[axis.months.size() * TYPES.length];
+            for (int i = from; i < to; i++) {
+                int start = columns.start[i];
+                int end = columns.end[i];
+                for (int m = axis.monthOf[start]; m <= axis.monthOf[end]; m++) {
+                    int a = Math.max(start, axis.monthStart[m]);
+                    int b = Math.min(end, axis.monthStart[m + 1] - 1);
+                    cells[m * TYPES.length + columns.type[i]] += axis.workingPrefix[b + 1] - axis.workingPrefix[a];
+                }
+            }
+            return cells;
+        }
+    }
+}
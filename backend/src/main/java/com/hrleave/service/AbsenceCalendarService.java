@@ -0,0 +1,253 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.AbsenceCalendarDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.repository.LeaveRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class AbsenceCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbsenceCalendarService.class);
+
+    private static final int DAYS_PER_YEAR = 366;
+    private static final long MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    // Approved leave days per employee and year, grouped by department and manager
+    private volatile Index index = new Index();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Index rebuilt = new Index();
+        List<LeaveRequest> approved = leaveRequestRepository.findByStatusWithUser(LeaveRequest.Status.APPROVED);
+        for (LeaveRequest leaveRequest : approved) {
+            rebuilt.member(leaveRequest.getUser()).set(leaveRequest.getStartDate(), leaveRequest.getEndDate(), true);
+        }
+        index = rebuilt;
+        logger.info("Absence calendar rebuilt from {} approved leave requests", approved.size());
+    }
+
+    public void recordApproval(LeaveRequest leaveRequest) {
+        User user = leaveRequest.getUser();
+        LocalDate startDate = leaveRequest.getStartDate();
+        LocalDate endDate = leaveRequest.getEndDate();
+        Snapshot snapshot = new Snapshot(user);
+
+        AfterCommit.run(() -> index.member(snapshot).set(startDate, endDate, true));
+    }
+
+    public void recordCancellation(LeaveRequest leaveRequest) {
+        Long userId = leaveRequest.getUser().getId();
+        Long requestId = leaveRequest.getId();
+        LocalDate startDate = leaveRequest.getStartDate();
+        LocalDate endDate = leaveRequest.getEndDate();
+
+        AfterCommit.run(() -> {
+            Member member = index.members.get(userId);
+            if (member == null) {
+                return;
+            }
+            member.set(startDate, endDate, false);
+
+            // Re-mark days still covered by another approved request of the same user
+            for (LeaveRequest other : leaveRequestRepository.findByUserIdAndStatus(userId, LeaveRequest.Status.APPROVED)) {
+                if (!other.getId().equals(requestId)
+                        && !other.getStartDate().isAfter(endDate) && !other.getEndDate().isBefore(startDate)) {
+                    member.set(other.getStartDate(), other.getEndDate(), true);
+                }
+            }
+        });
+    }
+
+    public void updateMember(User user) {
+        Snapshot snapshot = new Snapshot(user);
+        AfterCommit.run(() -> index.regroup(snapshot));
+    }
+
+    public void removeMember(Long userId) {
+        AfterCommit.run(() -> index.remove(userId));
+    }
+
+    public List<AbsenceCalendarDto> getDepartmentAbsences(String department, LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        Index current = index;
+        return collect(current, current.byDepartment.getOrDefault(department, Collections.emptySet()), startDate, endDate);
+    }
+
+    public List<AbsenceCalendarDto> getTeamAbsences(Long managerId, LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        Index current = index;
+        return collect(current, current.byManager.getOrDefault(managerId, Collections.emptySet()), startDate, endDate);
+    }
+
+    private List<AbsenceCalendarDto> collect(Index current, Set<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        List<AbsenceCalendarDto> result = new ArrayList<>();
+        for (Long userId : userIds) {
+            Member member = current.members.get(userId);
+            if (member == null) {
+                continue;
+            }
+            List<LocalDate> days = member.daysIn(startDate, endDate);
+            if (!days.isEmpty()) {
+                result.add(new AbsenceCalendarDto(member.userId, member.firstName, member.lastName,
+                        member.department, days));
+            }
+        }
+        return result;
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private static final class Index {
+        final Map<Long, Member> members = new ConcurrentHashMap<>();
+        final Map<String, Set<Long>> byDepartment = new ConcurrentHashMap<>();
+        final Map<Long, Set<Long>> byManager = new ConcurrentHashMap<>();
+
+        Member member(User user) {
+            return member(new Snapshot(user));
+        }
+
+        Member member(Snapshot snapshot) {
+            return members.computeIfAbsent(snapshot.userId, id -> {
+                Member member = new Member(snapshot);
+                group(member);
+                return member;
+            });
+        }
+
+        synchronized void regroup(Snapshot snapshot) {
+            Member member = members.get(snapshot.userId);
+            if (member == null) {
+                return;
+            }
+            ungroup(member);
+            member.update(snapshot);
+            group(member);
+        }
+
+        synchronized void remove(Long userId) {
+            Member member = members.remove(userId);
+            if (member != null) {
+                ungroup(member);
+            }
+        }
+
+        private void group(Member member) {
+            if (member.department != null) {
+                byDepartment.computeIfAbsent(member.department, d -> ConcurrentHashMap.newKeySet()).add(member.userId);
+            }
+            if (member.managerId != null) {
+                byManager.computeIfAbsent(member.managerId, m -> ConcurrentHashMap.newKeySet()).add(member.userId);
+            }
+        }
+
+        private void ungroup(Member member) {
+            if (member.department != null) {
+                byDepartment.getOrDefault(member.department, Collections.emptySet()).remove(member.userId);
+            }
+            if (member.managerId != null) {
+                byManager.getOrDefault(member.managerId, Collections.emptySet()).remove(member.userId);
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        final Long userId;
+        final String firstName;
+        final String lastName;
+        final String department;
+        final Long managerId;
+
+        Snapshot(User user) {
+            this.userId = user.getId();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.department = user.getDepartment();
+            this.managerId = user.getManager() != null ? user.getManager().getId() : null;
+        }
+    }
+
+    private static final class Member {
+        final Long userId;
+        volatile String firstName;
+        volatile String lastName;
+        volatile String department;
+        volatile Long managerId;
+
+        // Bit (dayOfYear - 1) is set when the employee is on approved leave that day
+        private final Map<Integer, BitSet> years = new HashMap<>();
+
+        Member(Snapshot snapshot) {
+            this.userId = snapshot.userId;
+            update(snapshot);
+        }
+
+        void update(Snapshot snapshot) {
+            this.firstName = snapshot.firstName;
+            this.lastName = snapshot.lastName;
+            this.department = snapshot.department;
+            this.managerId = snapshot.managerId;
+        }
+
+        synchronized void set(LocalDate startDate, LocalDate endDate, boolean value) {
+            for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+                BitSet bits = years.computeIfAbsent(year, y -> new BitSet(DAYS_PER_YEAR));
+                bits.set(fromIndex(year, startDate), toIndex(year, endDate), value);
+            }
+        }
+
+        synchronized List<LocalDate> daysIn(LocalDate startDate, LocalDate endDate) {
+            List<LocalDate> days = new ArrayList<>();
+            for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+                BitSet bits = years.get(year);
+                if (bits == null) {
+                    continue;
+                }
+                int from = fromIndex(year, startDate);
+                BitSet hits = bits.get(from, toIndex(year, endDate));
+                for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+                    days.add(LocalDate.ofYearDay(year, from + i + 1));
+                }
+            }
+            return days;
+        }
+
+        private static int fromIndex(int year, LocalDate startDate) {
+            return year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+        }
+
+        private static int toIndex(int year, LocalDate endDate) {
+            return year == endDate.getYear() ? endDate.getDayOfYear() : Year.of(year).length();
+        }
+    }
+}
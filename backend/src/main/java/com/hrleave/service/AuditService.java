@@ -3,6 +3,7 @@ package com.hrleave.service;
 import com.hrleave.entity.AuditLog;
 import com.hrleave.entity.User;
 import com.hrleave.repository.AuditLogRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,23 +18,31 @@ public class AuditService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private LeaveSearchService leaveSearchService;
+
+    @Timed(value = "hrleave.audit", extraTags = {"operation", "log"})
     public void logAction(User user, String action, String entityType, Long entityId, String details) {
         AuditLog auditLog = new AuditLog(user, action, entityType, entityId, details);
-        auditLogRepository.save(auditLog);
+        leaveSearchService.indexAuditLog(auditLogRepository.save(auditLog));
     }
 
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByUser(Long userId) {
         return auditLogRepository.findByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByAction(String action) {
         return auditLogRepository.findByAction(action);
     }
 
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByEntity(String entityType, Long entityId) {
         return auditLogRepository.findByEntityTypeAndEntityId(entityType, entityId);
     }
 
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         return auditLogRepository.findByDateRange(startDate, endDate);
     }
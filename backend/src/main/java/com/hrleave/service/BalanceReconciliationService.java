@@ -0,0 +1,273 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.BalanceReconciliationDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.repository.ArchivedLeaveRequestRepository;
+import com.hrleave.repository.LeaveBalanceRepository;
+import com.hrleave.repository.LeaveRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Recomputes the used_* counters of leave_balances from the approved leave requests starting in the balance's year.
+// Users are checked in chunks of consecutive ids, in parallel, each chunk in its own short transaction on the primary.
+@Service
+public class BalanceReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceReconciliationService.class);
+
+    private static final int MAX_REPORTED_DRIFTS = 100;
+    private static final String[] COUNTERS = {"ANNUAL", "SICK", "PERSONAL"};
+
+    // Only applied if the balance is unchanged since it was read, so a concurrent deduction is never overwritten
+    private static final String UPDATE_SQL = "UPDATE leave_balances SET used_annual = ?, used_sick = ?, used_personal = ?, "
+            + "updated_at = ?, version = version + 1 WHERE id = ? AND updated_at = ?";
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private ArchivedLeaveRequestRepository archivedLeaveRequestRepository;
+
+    @Autowired
+    private LeaveArchiveService leaveArchiveService;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leave.balances.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${leave.balances.reconcile.parallelism:4}")
+    private int parallelism;
+
+    @Value("${leave.balances.reconcile.auto-correct:false}")
+    private boolean autoCorrect;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService pool;
+    private TransactionTemplate chunkTransaction;
+    private Counter driftCounter;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "balance-reconcile-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        new ExecutorServiceMetrics(pool, "balance-reconcile", Tags.empty()).bindTo(meterRegistry);
+
+        // Read-write so the reads go to the primary; READ COMMITTED plain selects take no row locks
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        driftCounter = Counter.builder("hrleave.balances.drift")
+                .description("Leave balances found out of step with their approved requests")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(cron = "${leave.balances.reconcile.cron:0 30 2 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile(LocalDate.now().getYear(), autoCorrect, null);
+        } catch (RuntimeException e) {
+            logger.warn("Scheduled balance reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    public BalanceReconciliationDto reconcile(int year, boolean correct, User requestedBy) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Balance reconciliation is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            List<Long> userIds = chunkTransaction.execute(status -> leaveBalanceRepository.findUserIdsByYear(year));
+
+            List<Future<BalanceReconciliationDto>> chunks = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                Long fromUserId = userIds.get(from);
+                Long toUserId = userIds.get(Math.min(from + chunkSize, userIds.size()) - 1);
+                chunks.add(pool.submit(() -> chunkTransaction.execute(status ->
+                        reconcileChunk(fromUserId, toUserId, year, correct))));
+            }
+
+            BalanceReconciliationDto report = new BalanceReconciliationDto(year, correct);
+            for (Future<BalanceReconciliationDto> chunk : chunks) {
+                merge(report, chunk.get());
+            }
+            report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+
+            driftCounter.increment(report.getDriftedBalances());
+            if (report.getDriftedBalances() > 0) {
+                logger.warn("Balance reconciliation for {}: {} of {} balances drifted, {} corrected, {} skipped",
+                        year, report.getDriftedBalances(), report.getBalancesChecked(),
+                        report.getCorrectedBalances(), report.getSkippedBalances());
+            } else {
+                logger.info("Balance reconciliation for {}: {} balances checked, no drift", year, report.getBalancesChecked());
+            }
+            if (report.getCorrectedBalances() > 0) {
+                auditService.logAction(requestedBy, "RECONCILE_LEAVE_BALANCES", "LeaveBalance", null,
+                        "Corrected " + report.getCorrectedBalances() + " leave balances for " + year);
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Balance reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Balance reconciliation failed", e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BalanceReconciliationDto reconcileChunk(Long fromUserId, Long toUserId, int year, boolean correct) {
+        // Balances are read before the requests: an approval committing in between changes updated_at,
+        // so the conditional update leaves that balance alone instead of undoing the deduction
+        List<Object[]> balances = leaveBalanceRepository.findUsedCounters(fromUserId, toUserId, year);
+
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        List<Object[]> sums = new ArrayList<>(leaveRequestRepository.sumDaysGroupedByUserAndType(fromUserId, toUserId,
+                LeaveRequest.Status.APPROVED, startDate, endDate));
+        // Past years may be partly archived
+        if (leaveArchiveService.includesArchive(startDate)) {
+            sums.addAll(archivedLeaveRequestRepository.sumDaysGroupedByUserAndType(fromUserId, toUserId,
+                    LeaveRequest.Status.APPROVED, startDate, endDate));
+        }
+
+        Map<Long, int[]> expected = new HashMap<>();
+        for (Object[] row : sums) {
+            int counter = counterIndex((LeaveRequest.LeaveType) row[1]);
+            if (counter >= 0 && row[2] != null) {
+                expected.computeIfAbsent((Long) row[0], id -> new int[COUNTERS.length])[counter] += ((Long) row[2]).intValue();
+            }
+        }
+
+        BalanceReconciliationDto result = new BalanceReconciliationDto(year, correct);
+        List<Object[]> updates = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Object[] balance : balances) {
+            Long userId = (Long) balance[1];
+            int[] recorded = {value(balance[2]), value(balance[3]), value(balance[4])};
+            int[] wanted = expected.getOrDefault(userId, new int[COUNTERS.length]);
+
+            boolean drifted = false;
+            for (int i = 0; i < COUNTERS.length; i++) {
+                if (recorded[i] == wanted[i]) {
+                    continue;
+                }
+                drifted = true;
+                if (result.getDrifts().size() < MAX_REPORTED_DRIFTS) {
+                    result.getDrifts().add(new BalanceReconciliationDto.Drift(userId, COUNTERS[i], recorded[i], wanted[i]));
+                }
+            }
+            if (drifted) {
+                result.setDriftedBalances(result.getDriftedBalances() + 1);
+                if (correct && balance[5] != null) {
+                    updates.add(new Object[]{wanted[0], wanted[1], wanted[2], now, balance[0],
+                            Timestamp.valueOf((LocalDateTime) balance[5])});
+                }
+            }
+        }
+        result.setBalancesChecked(balances.size());
+
+        if (!updates.isEmpty()) {
+            List<Long> balanceIds = new ArrayList<>();
+            for (Object[] update : updates) {
+                balanceIds.add((Long) update[4]);
+            }
+            leaveBalanceService.evictCachedBalances(balanceIds);
+
+            int corrected = 0;
+            for (int count : jdbcTemplate.batchUpdate(UPDATE_SQL, updates)) {
+                // Drivers that rewrite batches report SUCCESS_NO_INFO (-2) rather than 1
+                if (count != 0) {
+                    corrected++;
+                }
+            }
+            result.setCorrectedBalances(corrected);
+        }
+        result.setSkippedBalances(correct ? result.getDriftedBalances() - result.getCorrectedBalances() : 0);
+        return result;
+    }
+
+    private static void merge(BalanceReconciliationDto report, BalanceReconciliationDto chunk) {
+        report.setBalancesChecked(report.getBalancesChecked() + chunk.getBalancesChecked());
+        report.setDriftedBalances(report.getDriftedBalances() + chunk.getDriftedBalances());
+        report.setCorrectedBalances(report.getCorrectedBalances() + chunk.getCorrectedBalances());
+        report.setSkippedBalances(report.getSkippedBalances() + chunk.getSkippedBalances());
+        for (BalanceReconciliationDto.Drift drift : chunk.getDrifts()) {
+            if (report.getDrifts().size() < MAX_REPORTED_DRIFTS) {
+                report.getDrifts().add(drift);
+            }
+        }
+    }
+
+    // MATERNITY and EMERGENCY don't affect regular balance
+    private static int counterIndex(LeaveRequest.LeaveType type) {
+        switch (type) {
+            case ANNUAL:
+                return 0;
+            case SICK:
+                return 1;
+            case PERSONAL:
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+    private static int value(Object counter) {
+        return counter != null ? (Integer) counter : 0;
+    }
+}
@@ -0,0 +1,189 @@
+package com.hrleave.service;
+
+import com.hrleave.config.CoverageProperties;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.repository.LeaveRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class CoverageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverageService.class);
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private CoverageProperties coverageProperties;
+
+    // One lock per stripe of departments: approvals in the same department are serialized, and two departments whose
+    // names hash to the same stripe share a lock as well
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    // Approved absences per department, year and day of year; guarded by the department's stripe
+    private volatile Map<String, Map<Integer, int[]>> counters = new ConcurrentHashMap<>();
+
+    public CoverageService() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<String, Map<Integer, int[]>> rebuilt = new ConcurrentHashMap<>();
+        List<LeaveRequest> approved = leaveRequestRepository.findByStatusWithUser(LeaveRequest.Status.APPROVED);
+        for (LeaveRequest leaveRequest : approved) {
+            add(rebuilt, leaveRequest.getUser().getDepartment(), leaveRequest.getStartDate(), leaveRequest.getEndDate(), 1);
+        }
+        counters = rebuilt;
+        logger.info("Coverage counters rebuilt from {} approved leave requests", approved.size());
+    }
+
+    // Checks the department limit for every day of the range and reserves it atomically.
+    // The reservation is released again if the surrounding transaction rolls back.
+    public void reserve(String department, LocalDate startDate, LocalDate endDate) {
+        int limit = coverageProperties.maxAbsent(department);
+        ReentrantLock lock = lockFor(department);
+        lock.lock();
+        try {
+            if (limit > 0) {
+                LocalDate fullDay = firstFullDay(department, startDate, endDate, limit);
+                if (fullDay != null) {
+                    throw new RuntimeException("Department " + department + " already has " + limit
+                            + " people off on " + fullDay);
+                }
+            }
+            add(counters, department, startDate, endDate, 1);
+        } finally {
+            lock.unlock();
+        }
+
+        AfterCommit.onRollback(() -> release(department, startDate, endDate));
+    }
+
+    public void releaseAfterCommit(String department, LocalDate startDate, LocalDate endDate) {
+        AfterCommit.run(() -> release(department, startDate, endDate));
+    }
+
+    // Moves a user's approved absences to another department's counters; a user without a department is counted
+    // nowhere, so only the side that names one changes
+    public void moveMember(Long userId, String oldDepartment, String newDepartment) {
+        if (Objects.equals(oldDepartment, newDepartment)) {
+            return;
+        }
+        List<LeaveRequest> approved = leaveRequestRepository.findByUserIdAndStatus(userId, LeaveRequest.Status.APPROVED);
+        AfterCommit.run(() -> {
+            for (LeaveRequest leaveRequest : approved) {
+                if (oldDepartment != null) {
+                    release(oldDepartment, leaveRequest.getStartDate(), leaveRequest.getEndDate());
+                }
+                if (newDepartment != null) {
+                    locked(newDepartment, () -> add(counters, newDepartment,
+                            leaveRequest.getStartDate(), leaveRequest.getEndDate(), 1));
+                }
+            }
+        });
+    }
+
+    // Releases the approved absences of a deleted user
+    public void removeMember(Long userId, String department) {
+        List<LeaveRequest> approved = leaveRequestRepository.findByUserIdAndStatus(userId, LeaveRequest.Status.APPROVED);
+        AfterCommit.run(() -> {
+            for (LeaveRequest leaveRequest : approved) {
+                release(department, leaveRequest.getStartDate(), leaveRequest.getEndDate());
+            }
+        });
+    }
+
+    private void release(String department, LocalDate startDate, LocalDate endDate) {
+        locked(department, () -> {
+            int underflows = add(counters, department, startDate, endDate, -1);
+            // A release without its reservation: the counters no longer match leave_requests until the next restart
+            if (underflows > 0) {
+                logger.warn("Coverage of {} released below zero on {} day(s) between {} and {}; counters kept at 0",
+                        department, underflows, startDate, endDate);
+            }
+        });
+    }
+
+    private void locked(String department, Runnable action) {
+        ReentrantLock lock = lockFor(department);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LocalDate firstFullDay(String department, LocalDate startDate, LocalDate endDate, int limit) {
+        Map<Integer, int[]> years = counters.get(department);
+        if (years == null) {
+            return null;
+        }
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            int[] days = years.get(year);
+            if (days == null) {
+                continue;
+            }
+            for (int d = fromIndex(year, startDate); d < toIndex(year, endDate); d++) {
+                if (days[d] >= limit) {
+                    return LocalDate.ofYearDay(year, d + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Returns the number of days whose counter would have gone below zero, which are left at zero
+    private static int add(Map<String, Map<Integer, int[]>> target, String department,
+                           LocalDate startDate, LocalDate endDate, int delta) {
+        if (department == null) {
+            return 0;
+        }
+        int underflows = 0;
+        Map<Integer, int[]> years = target.computeIfAbsent(department, d -> new HashMap<>());
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            int[] days = years.computeIfAbsent(year, y -> new int[Year.of(y).length()]);
+            for (int d = fromIndex(year, startDate); d < toIndex(year, endDate); d++) {
+                if (days[d] + delta < 0) {
+                    underflows++;
+                } else {
+                    days[d] += delta;
+                }
+            }
+        }
+        return underflows;
+    }
+
+    private ReentrantLock lockFor(String department) {
+        return locks[(department == null ? 0 : department.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static int fromIndex(int year, LocalDate startDate) {
+        return year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+    }
+
+    private static int toIndex(int year, LocalDate endDate) {
+        return year == endDate.getYear() ? endDate.getDayOfYear() : Year.of(year).length();
+    }
+}
@@ -0,0 +1,182 @@
+package com.hrleave.service;
+
+import com.hrleave.entity.PublicHoliday;
+import com.hrleave.entity.User;
+import com.hrleave.repository.PublicHolidayRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class HolidayCalendarService {
+
+    @Autowired
+    private PublicHolidayRepository publicHolidayRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${leave.holidays.default-calendar:DEFAULT}")
+    private String defaultCalendar;
+
+    @Value("${leave.holidays.cache-size:256}")
+    private int cacheSize;
+
+    @Value("${leave.holidays.year-range:50}")
+    private int yearRange;
+
+    // Working days per calendar and year: prefix[d] = working days among days 1..d of the year. Least recently used
+    // years go first once cacheSize is reached.
+    private Map<String, int[]> prefixSums;
+
+    // Bumped, together with the removal, by every eviction: a prefix built from holidays read before it is not cached
+    private long generation;
+
+    private TransactionTemplate buildTransaction;
+
+    @PostConstruct
+    public void init() {
+        prefixSums = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        // Read-only callers, possibly on the replica, build from the primary in a transaction of their own
+        buildTransaction = new TransactionTemplate(transactionManager);
+        buildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public int countWorkingDays(User user, LocalDate startDate, LocalDate endDate) {
+        return countWorkingDays(resolveCalendar(user), startDate, endDate);
+    }
+
+    @Transactional(readOnly = true)
+    public int countWorkingDays(String calendarCode, LocalDate startDate, LocalDate endDate) {
+        int currentYear = LocalDate.now().getYear();
+        if (startDate.getYear() < currentYear - yearRange || endDate.getYear() > currentYear + yearRange) {
+            throw new RuntimeException("Dates must be within " + yearRange + " years of the current year");
+        }
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+
+        int total = 0;
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            int[] prefix = prefixSum(calendarCode, year);
+            int from = year == startDate.getYear() ? startDate.getDayOfYear() : 1;
+            int to = year == endDate.getYear() ? endDate.getDayOfYear() : Year.of(year).length();
+            total += prefix[to] - prefix[from - 1];
+        }
+        return total;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PublicHoliday> getHolidays(String calendarCode, Integer year) {
+        return publicHolidayRepository.findByCalendarCodeAndHolidayDateBetweenOrderByHolidayDate(
+                calendarCode, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    public PublicHoliday addHoliday(PublicHoliday holiday) {
+        PublicHoliday savedHoliday = publicHolidayRepository.save(holiday);
+        evict(savedHoliday.getCalendarCode(), savedHoliday.getHolidayDate().getYear());
+        return savedHoliday;
+    }
+
+    public void deleteHoliday(Long id) {
+        PublicHoliday holiday = publicHolidayRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Public holiday not found with id: " + id));
+
+        publicHolidayRepository.delete(holiday);
+        evict(holiday.getCalendarCode(), holiday.getHolidayDate().getYear());
+    }
+
+    public String resolveCalendar(User user) {
+        if (user != null && user.getHolidayCalendar() != null && !user.getHolidayCalendar().isBlank()) {
+            return user.getHolidayCalendar();
+        }
+        return defaultCalendar;
+    }
+
+    private int[] prefixSum(String calendarCode, int year) {
+        String key = cacheKey(calendarCode, year);
+        int[] cached = prefixSums.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Built outside the map's lock; kept only if no holiday of any calendar changed meanwhile
+        long builtAt;
+        synchronized (prefixSums) {
+            builtAt = generation;
+        }
+        int[] prefix = inReadWriteTransaction()
+                ? buildPrefixSum(calendarCode, year, true)
+                : buildTransaction.execute(status -> buildPrefixSum(calendarCode, year, false));
+        prefixSums.compute(key, (k, existing) -> existing != null ? existing : generation == builtAt ? prefix : null);
+        return prefix;
+    }
+
+    // Writers such as createLeaveRequest already hold a connection and the user's row lock, so a second connection
+    // per cold miss could starve the pool: they read in their own transaction, with a locking read, because a plain
+    // read could come from a snapshot older than the generation read before it and cache holidays since changed
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private int[] buildPrefixSum(String calendarCode, int year, boolean locking) {
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        int length = Year.of(year).length();
+        LocalDate lastDay = firstDay.plusDays(length - 1);
+        Set<LocalDate> holidays = locking
+                ? publicHolidayRepository.lockHolidays(calendarCode, firstDay, lastDay).stream()
+                        .map(PublicHoliday::getHolidayDate).collect(Collectors.toSet())
+                : new HashSet<>(publicHolidayRepository.findHolidayDates(calendarCode, firstDay, lastDay));
+
+        int[] prefix = new int[length + 1];
+        LocalDate day = firstDay;
+        for (int i = 1; i <= length; i++) {
+            prefix[i] = prefix[i - 1] + (isWorkingDay(day, holidays) ? 1 : 0);
+            day = day.plusDays(1);
+        }
+        return prefix;
+    }
+
+    private boolean isWorkingDay(LocalDate day, Set<LocalDate> holidays) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidays.contains(day);
+    }
+
+    private void evict(String calendarCode, int year) {
+        // Evict after commit so a concurrent reader cannot re-cache the pre-change holiday list
+        AfterCommit.run(() -> {
+            synchronized (prefixSums) {
+                generation++;
+                prefixSums.remove(cacheKey(calendarCode, year));
+            }
+        });
+    }
+
+    private String cacheKey(String calendarCode, int year) {
+        return calendarCode + ":" + year;
+    }
+}
@@ -0,0 +1,194 @@
+package com.hrleave.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrleave.entity.IdempotencyRecord;
+import com.hrleave.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Runs a request at most once per (user, Idempotency-Key) and replays the stored response on retries
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final String INSERT_SQL = "INSERT INTO idempotency_keys "
+            + "(user_id, idempotency_key, request_hash, created_at, expires_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.lock-timeout-ms:60000}")
+    private long lockTimeoutMs;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    // Completed records only, most recently used last; in-flight claims always go to the database
+    private Map<String, IdempotencyRecord> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public <T> ResponseEntity<T> execute(String key, Long userId, String operation, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String requestHash = fingerprint(operation, request);
+        IdempotencyRecord completed = cache.get(cacheKey(userId, key));
+        if (completed != null && completed.getExpiresAt().isAfter(LocalDateTime.now())) {
+            return replay(completed, requestHash, responseType);
+        }
+
+        if (!claim(userId, key, requestHash)) {
+            IdempotencyRecord existing = idempotencyRecordRepository
+                    .findById(new IdempotencyRecord.Key(userId, key)).orElse(null);
+            if (existing == null) {
+                // Expired and purged between the insert and the read
+                return execute(key, userId, operation, request, responseType, action);
+            }
+            if (existing.isCompleted()) {
+                cache.put(cacheKey(userId, key), existing);
+                return replay(existing, requestHash, responseType);
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            }
+            if (!reclaimIfAbandoned(existing)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Thrown out of the operation's transaction, which rolled back: the key may run again
+            idempotencyRecordRepository.release(userId, key);
+            throw e;
+        }
+
+        // Whatever the action committed is final whatever its status, so the key is never released from here on:
+        // every response is stored and replayed, one whose body cannot be serialized as its status alone
+        String body = serializeQuietly(response.getBody());
+        idempotencyRecordRepository.complete(userId, key, response.getStatusCode().value(), body);
+
+        IdempotencyRecord record = new IdempotencyRecord(userId, key, requestHash,
+                LocalDateTime.now(), LocalDateTime.now().plusHours(ttlHours));
+        record.setStatusCode(response.getStatusCode().value());
+        record.setResponseBody(body);
+        cache.put(cacheKey(userId, key), record);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = idempotencyRecordRepository.deleteExpired(now);
+        cache.values().removeIf(record -> !record.getExpiresAt().isAfter(now));
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private boolean claim(Long userId, String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            jdbcTemplate.update(INSERT_SQL, userId, key, requestHash,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now.plusHours(ttlHours)));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean reclaimIfAbandoned(IdempotencyRecord existing) {
+        LocalDateTime now = LocalDateTime.now();
+        return existing.getCreatedAt().plusNanos(lockTimeoutMs * 1_000_000).isBefore(now)
+                && idempotencyRecordRepository.reclaim(existing.getUserId(), existing.getIdempotencyKey(),
+                        existing.getCreatedAt(), now) == 1;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        try {
+            T body = record.getResponseBody() != null
+                    ? objectMapper.readValue(record.getResponseBody(), responseType) : null;
+            return ResponseEntity.status(record.getStatusCode()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String serializeQuietly(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            logger.warn("Idempotent response body cannot be stored, only its status is replayed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -0,0 +1,248 @@
+package com.hrleave.service;
+
+import com.hrleave.config.AccrualProperties;
+import com.hrleave.dto.AccrualRunDto;
+import com.hrleave.entity.User;
+import com.hrleave.repository.LeaveAccrualRepository;
+import com.hrleave.repository.LeaveBalanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Credits the monthly pro-rata share of each user's department policy to their leave balance.
+// A run for a period covers every month of the year not accrued yet, so missed runs are caught up, and the
+// leave_accruals primary key (user, period) makes a rerun of the same period a no-op.
+@Service
+public class LeaveAccrualService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveAccrualService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO leave_accruals "
+            + "(user_id, period, months, annual_days, sick_days, personal_days, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Both bump LeaveBalance.version, so a JPA save of a balance loaded before the credit fails instead of erasing it.
+    // First accrual of the year replaces the fixed yearly allowance the balance was created with
+    private static final String SET_SQL = "UPDATE leave_balances SET annual_leave = ?, sick_leave = ?, personal_leave = ?, "
+            + "updated_at = ?, version = version + 1 WHERE id = ?";
+    private static final String ADD_SQL = "UPDATE leave_balances SET annual_leave = annual_leave + ?, "
+            + "sick_leave = sick_leave + ?, personal_leave = personal_leave + ?, updated_at = ?, "
+            + "version = version + 1 WHERE id = ?";
+
+    @Autowired
+    private AccrualProperties accrualProperties;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private LeaveAccrualRepository leaveAccrualRepository;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leave.accrual.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${leave.accrual.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService pool;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "leave-accrual-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        new ExecutorServiceMetrics(pool, "leave-accrual", Tags.empty()).bindTo(meterRegistry);
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Daily, so a missed run is picked up the next day; every run after the first of a month is a no-op
+    @Scheduled(cron = "${leave.accrual.cron:0 15 1 * * *}")
+    public void scheduledAccrual() {
+        if (!accrualProperties.isEnabled()) {
+            return;
+        }
+        try {
+            accrue(YearMonth.now(), null);
+        } catch (RuntimeException e) {
+            logger.warn("Scheduled leave accrual failed: {}", e.getMessage());
+        }
+    }
+
+    public AccrualRunDto accrue(YearMonth period, User requestedBy) {
+        if (!accrualProperties.isEnabled()) {
+            throw new RuntimeException("Leave accrual is disabled");
+        }
+        if (period.isAfter(YearMonth.now())) {
+            throw new RuntimeException("Cannot accrue a future period");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Leave accrual is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            int year = period.getYear();
+            List<Long> userIds = chunkTransaction.execute(status -> leaveBalanceRepository.findUserIdsByYear(year));
+
+            // Chunks commit independently: if one fails, a rerun only credits the users it did not reach
+            List<Future<AccrualRunDto>> chunks = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                Long fromUserId = userIds.get(from);
+                Long toUserId = userIds.get(Math.min(from + chunkSize, userIds.size()) - 1);
+                chunks.add(pool.submit(() -> chunkTransaction.execute(status ->
+                        accrueChunk(fromUserId, toUserId, period))));
+            }
+
+            AccrualRunDto report = new AccrualRunDto(period.toString());
+            for (Future<AccrualRunDto> chunk : chunks) {
+                AccrualRunDto result = chunk.get();
+                report.setUsersChecked(report.getUsersChecked() + result.getUsersChecked());
+                report.setUsersAccrued(report.getUsersAccrued() + result.getUsersAccrued());
+                report.setAnnualDays(report.getAnnualDays() + result.getAnnualDays());
+                report.setSickDays(report.getSickDays() + result.getSickDays());
+                report.setPersonalDays(report.getPersonalDays() + result.getPersonalDays());
+            }
+            report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+
+            logger.info("Leave accrual for {}: {} of {} users credited in {} ms", period,
+                    report.getUsersAccrued(), report.getUsersChecked(), report.getDurationMs());
+            if (report.getUsersAccrued() > 0) {
+                auditService.logAction(requestedBy, "ACCRUE_LEAVE", "LeaveBalance", null,
+                        "Accrued leave for " + period + " to " + report.getUsersAccrued() + " users");
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Leave accrual interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Leave accrual failed", e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private AccrualRunDto accrueChunk(Long fromUserId, Long toUserId, YearMonth period) {
+        int year = period.getYear();
+        Map<Long, LocalDate> lastPeriods = new HashMap<>();
+        for (Object[] row : leaveAccrualRepository.findLastPeriods(fromUserId, toUserId, LocalDate.of(year, 1, 1))) {
+            lastPeriods.put((Long) row[0], (LocalDate) row[1]);
+        }
+
+        AccrualRunDto result = new AccrualRunDto(period.toString());
+        List<Object[]> accruals = new ArrayList<>();
+        List<Object[]> firstAccruals = new ArrayList<>();
+        List<Object[]> laterAccruals = new ArrayList<>();
+        List<Long> balanceIds = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> targets = leaveBalanceRepository.findAccrualTargets(fromUserId, toUserId, year);
+        for (Object[] target : targets) {
+            Long userId = (Long) target[1];
+            LocalDate lastPeriod = lastPeriods.get(userId);
+            int fromMonth = Math.max(lastPeriod != null ? lastPeriod.getMonthValue() : 0,
+                    firstMonth((LocalDate) target[3], year) - 1);
+            int toMonth = period.getMonthValue();
+            if (toMonth <= fromMonth) {
+                continue;
+            }
+
+            AccrualProperties.Policy policy = accrualProperties.policy((String) target[2]);
+            int annual = share(policy.getAnnual(), fromMonth, toMonth);
+            int sick = share(policy.getSick(), fromMonth, toMonth);
+            int personal = share(policy.getPersonal(), fromMonth, toMonth);
+
+            accruals.add(new Object[]{userId, Date.valueOf(period.atDay(1)), toMonth - fromMonth,
+                    annual, sick, personal, now});
+            (lastPeriod == null ? firstAccruals : laterAccruals).add(new Object[]{annual, sick, personal, now, target[0]});
+            balanceIds.add((Long) target[0]);
+
+            result.setUsersAccrued(result.getUsersAccrued() + 1);
+            result.setAnnualDays(result.getAnnualDays() + annual);
+            result.setSickDays(result.getSickDays() + sick);
+            result.setPersonalDays(result.getPersonalDays() + personal);
+        }
+        result.setUsersChecked(targets.size());
+
+        // Ledger rows first: a concurrent run of the same period fails on the primary key and rolls back
+        // before any balance is touched
+        if (!accruals.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, accruals);
+        }
+        if (!balanceIds.isEmpty()) {
+            leaveBalanceService.evictCachedBalances(balanceIds);
+        }
+        if (!firstAccruals.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_SQL, firstAccruals);
+        }
+        if (!laterAccruals.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_SQL, laterAccruals);
+        }
+        return result;
+    }
+
+    // First month of the year the user accrues for; 13 when they only join after the year
+    private int firstMonth(LocalDate joinDate, int year) {
+        if (joinDate == null || joinDate.getYear() < year) {
+            return 1;
+        }
+        if (joinDate.getYear() > year) {
+            return 13;
+        }
+        return joinDate.getMonthValue() + (joinDate.getDayOfMonth() > accrualProperties.getJoinCutoffDay() ? 1 : 0);
+    }
+
+    // Whole days earned over months (fromMonth, toMonth]; cumulative rounding keeps twelve months equal to the yearly days
+    private static int share(int yearlyDays, int fromMonth, int toMonth) {
+        return yearlyDays * toMonth / 12 - yearlyDays * fromMonth / 12;
+    }
+}
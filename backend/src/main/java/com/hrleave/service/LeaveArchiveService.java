@@ -0,0 +1,160 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.ArchiveRunDto;
+import com.hrleave.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Moves closed requests (approved, rejected, cancelled) that ended more than leave.archive.retention-years ago
+// from leave_requests to leave_requests_archive, so that the hot table and its indexes only hold recent history.
+// The table is walked in windows of chunk-size consecutive ids, each copied and deleted in its own transaction on
+// a primary key range; a failed run is simply resumed by the next one. Reads covering dates before the cutoff also
+// query the archive (see includesArchive).
+@Service
+public class LeaveArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveArchiveService.class);
+
+    private static final String COLUMNS = "id, user_id, type, start_date, end_date, days, reason, status, "
+            + "submitted_at, reviewed_at, reviewed_by, reviewer_comments, created_at, updated_at, "
+            + "escalated_to, escalated_at, escalations, version";
+    // Written as "not pending" so that the planner walks the primary key range rather than the status index
+    private static final String CLOSED = "status <> 'PENDING' AND end_date < ?";
+
+    private static final String SELECT_SQL = "SELECT id FROM leave_requests WHERE id BETWEEN ? AND ? AND " + CLOSED;
+    private static final String COPY_SQL = "INSERT INTO leave_requests_archive (" + COLUMNS + ", archived_at) SELECT "
+            + COLUMNS + ", ? FROM leave_requests WHERE id BETWEEN ? AND ? AND " + CLOSED;
+    private static final String DELETE_SQL = "DELETE FROM leave_requests WHERE id BETWEEN ? AND ? AND " + CLOSED;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LeaveSearchService leaveSearchService;
+
+    @Autowired
+    private LeaveStatsService leaveStatsService;
+
+    @Autowired
+    private LeaveRequestViewService leaveRequestViewService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Value("${leave.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${leave.archive.retention-years:2}")
+    private int retentionYears;
+
+    @Value("${leave.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        // Balance reconciliation of the current year only reads leave_requests
+        if (retentionYears < 1) {
+            throw new IllegalStateException("leave.archive.retention-years must be at least 1");
+        }
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${leave.archive.cron:0 45 3 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive(null);
+        } catch (RuntimeException e) {
+            logger.warn("Scheduled leave request archival failed: {}", e.getMessage());
+        }
+    }
+
+    // Closed requests that ended before this date may have been archived
+    public LocalDate cutoff() {
+        return LocalDate.now().minusYears(retentionYears);
+    }
+
+    // Whether a read of requests overlapping dates from startDate onwards must also query the archive
+    public boolean includesArchive(LocalDate startDate) {
+        return startDate == null || startDate.isBefore(cutoff());
+    }
+
+    public ArchiveRunDto archive(User requestedBy) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Leave request archival is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDate cutoff = cutoff();
+            ArchiveRunDto report = new ArchiveRunDto(cutoff);
+
+            // Requests created during the run are above the last id and not closed long enough anyway
+            Long lastId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM leave_requests", Long.class);
+            for (long windowStart = 1; lastId != null && windowStart <= lastId; windowStart += chunkSize) {
+                long fromId = windowStart;
+                long toId = windowStart + chunkSize - 1;
+                // Per chunk, so that archived_at stays close to the commit that search catch-ups read it after
+                Timestamp archivedAt = Timestamp.valueOf(LocalDateTime.now());
+                int archived = chunkTransaction.execute(status -> archiveChunk(fromId, toId, cutoff, archivedAt));
+                if (archived > 0) {
+                    report.setRequestsArchived(report.getRequestsArchived() + archived);
+                    report.setChunks(report.getChunks() + 1);
+                }
+            }
+            report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+
+            logger.info("Leave request archival: {} requests ended before {} moved in {} chunks in {} ms",
+                    report.getRequestsArchived(), cutoff, report.getChunks(), report.getDurationMs());
+            if (report.getRequestsArchived() > 0) {
+                leaveStatsService.archiveChanged();
+                auditService.logAction(requestedBy, "ARCHIVE_LEAVE_REQUESTS", "LeaveRequest", null,
+                        "Archived " + report.getRequestsArchived() + " closed leave requests ended before " + cutoff);
+            }
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveChunk(long fromId, long toId, LocalDate cutoff, Timestamp archivedAt) {
+        Date endedBefore = Date.valueOf(cutoff);
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_SQL, Long.class, fromId, toId, endedBefore);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Same range and condition for all three statements; a row changing in between rolls the chunk back
+        int copied = jdbcTemplate.update(COPY_SQL, archivedAt, fromId, toId, endedBefore);
+        int deleted = jdbcTemplate.update(DELETE_SQL, fromId, toId, endedBefore);
+        if (copied != ids.size() || deleted != ids.size()) {
+            throw new RuntimeException("Leave requests " + fromId + " to " + toId + " changed during archival");
+        }
+
+        leaveRequestViewService.removeDeleted(fromId, toId);
+        leaveSearchService.removeLeaveRequests(ids);
+        return ids.size();
+    }
+}
@@ -1,16 +1,29 @@
 package com.hrleave.service;
 
+import com.hrleave.config.AccrualProperties;
 import com.hrleave.dto.LeaveBalanceDto;
+import com.hrleave.dto.VersionStamp;
 import com.hrleave.entity.LeaveBalance;
 import com.hrleave.entity.LeaveRequest;
 import com.hrleave.entity.User;
 import com.hrleave.repository.LeaveBalanceRepository;
 import com.hrleave.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -26,14 +39,64 @@ public class LeaveBalanceService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private AccrualProperties accrualProperties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate createTransaction;
+
+    @PostConstruct
+    public void init() {
+        createTransaction = new TransactionTemplate(transactionManager);
+        createTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Read-only, so it can be served by the replica; the first read of the year creates the balance in its own
+    // transaction on the primary. Called from a read-write transaction it creates the balance in that transaction:
+    // callers such as createLeaveRequest hold the user row FOR UPDATE, and on InnoDB the foreign key check of an
+    // insert on a second connection would wait for that lock until the lock wait timeout
+    @Transactional(readOnly = true)
     public LeaveBalanceDto getLeaveBalance(Long userId) {
         int currentYear = LocalDateTime.now().getYear();
         LeaveBalance balance = leaveBalanceRepository.findByUserIdAndYear(userId, currentYear)
-                .orElseGet(() -> createDefaultLeaveBalance(userId, currentYear));
+                .orElseGet(() -> inReadWriteTransaction()
+                        ? createDefaultLeaveBalance(userId, currentYear)
+                        : createOnPrimary(userId, currentYear));
 
         return convertToDto(balance);
     }
 
+    private LeaveBalance createOnPrimary(Long userId, Integer year) {
+        try {
+            return createTransaction.execute(status -> leaveBalanceRepository.findByUserIdAndYear(userId, year)
+                    .orElseGet(() -> createDefaultLeaveBalance(userId, year)));
+        } catch (DataIntegrityViolationException e) {
+            // Created by a concurrent first read
+            return createTransaction.execute(status -> leaveBalanceRepository.findByUserIdAndYear(userId, year)
+                    .orElseThrow(() -> e));
+        }
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // Null when the balance does not exist yet, so the caller falls through to getLeaveBalance
+    @Transactional(readOnly = true)
+    public VersionStamp getLeaveBalanceVersion(Long userId) {
+        int currentYear = LocalDateTime.now().getYear();
+        return leaveBalanceRepository.findUpdatedAt(userId, currentYear)
+                .map(updatedAt -> new VersionStamp("balance-" + userId + "-" + currentYear + "-"
+                        + updatedAt.toEpochSecond(ZoneOffset.UTC) + "." + updatedAt.getNano(), updatedAt))
+                .orElse(null);
+    }
+
     public LeaveBalanceDto updateLeaveBalance(Long userId, LeaveBalanceDto balanceDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -72,6 +135,7 @@ public class LeaveBalanceService {
         }
     }
 
+    @Timed(value = "hrleave.leave_balance", extraTags = {"operation", "deduct"})
     public void deductLeaveBalance(Long userId, LeaveRequest.LeaveType leaveType, Integer days) {
         int currentYear = LocalDateTime.now().getYear();
         LeaveBalance balance = leaveBalanceRepository.findByUserIdAndYear(userId, currentYear)
@@ -99,6 +163,7 @@ public class LeaveBalanceService {
                 "Deducted " + days + " days of " + leaveType.name().toLowerCase() + " leave");
     }
 
+    @Timed(value = "hrleave.leave_balance", extraTags = {"operation", "restore"})
     public void restoreLeaveBalance(Long userId, LeaveRequest.LeaveType leaveType, Integer days) {
         int currentYear = LocalDateTime.now().getYear();
         Optional<LeaveBalance> balanceOpt = leaveBalanceRepository.findByUserIdAndYear(userId, currentYear);
@@ -128,11 +193,29 @@ public class LeaveBalanceService {
         }
     }
 
+    // For balances written with plain JDBC, which the second-level cache does not see. Cached query results hold the
+    // balance itself, not only its id, so the lookups by user and year are dropped as well.
+    public void evictCachedBalances(List<Long> balanceIds) {
+        AfterCommit.run(() -> {
+            Cache cache = entityManagerFactory.getCache();
+            for (Long balanceId : balanceIds) {
+                cache.evict(LeaveBalance.class, balanceId);
+            }
+            cache.unwrap(org.hibernate.Cache.class).evictQueryRegion(LeaveBalanceRepository.QUERY_REGION);
+        });
+    }
+
     private LeaveBalance createDefaultLeaveBalance(Long userId, Integer year) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
 
         LeaveBalance balance = new LeaveBalance(user, year);
+        // With monthly accrual, allowances start empty and are credited by LeaveAccrualService
+        if (accrualProperties.isEnabled()) {
+            balance.setAnnualLeave(0);
+            balance.setSickLeave(0);
+            balance.setPersonalLeave(0);
+        }
         return leaveBalanceRepository.save(balance);
     }
 
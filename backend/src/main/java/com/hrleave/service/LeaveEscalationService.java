@@ -0,0 +1,226 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.EscalationRunDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.repository.LeaveRequestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Escalates requests left PENDING longer than the configured age to the next manager up, and once they cannot go
+// higher, optionally approves them on behalf of the last manager. The backlog is walked oldest first in keyset
+// batches on (status, submitted_at), each batch in its own transaction, so it is never loaded at once.
+@Service
+public class LeaveEscalationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveEscalationService.class);
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_PAGE_ATTEMPTS = 3;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private PendingRequestCache pendingRequestCache;
+
+    @Autowired
+    private LeaveRequestViewService leaveRequestViewService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leave.escalation.enabled:false}")
+    private boolean enabled;
+
+    // Since submission, or since the last escalation
+    @Value("${leave.escalation.pending-age-hours:72}")
+    private long pendingAgeHours;
+
+    @Value("${leave.escalation.max-escalations:2}")
+    private int maxEscalations;
+
+    @Value("${leave.escalation.auto-approve:false}")
+    private boolean autoApprove;
+
+    @Value("${leave.escalation.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private TransactionTemplate batchTransaction;
+
+    // Outcome of one keyset batch
+    private static class Batch {
+        private int size;
+        private LocalDateTime lastSubmittedAt;
+        private Long lastId;
+        private int escalated;
+        private final Map<Long, List<LeaveRequest>> digests = new LinkedHashMap<>();
+        private final Map<Long, User> managers = new LinkedHashMap<>();
+        private final List<Long[]> approvals = new ArrayList<>();
+    }
+
+    @PostConstruct
+    public void init() {
+        batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${leave.escalation.cron:0 0 * * * *}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep(null);
+        } catch (RuntimeException e) {
+            logger.warn("Scheduled escalation sweep failed: {}", e.getMessage());
+        }
+    }
+
+    public EscalationRunDto sweep(User requestedBy) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Escalation sweep is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime cutoff = LocalDateTime.now().minusHours(pendingAgeHours);
+            EscalationRunDto report = new EscalationRunDto();
+
+            LocalDateTime afterSubmittedAt = KEYSET_START;
+            Long afterId = 0L;
+            int attempt = 0;
+            while (true) {
+                LocalDateTime fromSubmittedAt = afterSubmittedAt;
+                Long fromId = afterId;
+                Batch batch;
+                try {
+                    batch = batchTransaction.execute(status -> escalateBatch(cutoff, fromSubmittedAt, fromId, requestedBy));
+                } catch (OptimisticLockingFailureException e) {
+                    // A request of the page was reviewed or edited meanwhile: the page is read again
+                    if (++attempt >= MAX_PAGE_ATTEMPTS) {
+                        throw e;
+                    }
+                    continue;
+                }
+                attempt = 0;
+                if (batch.size == 0) {
+                    break;
+                }
+                report.setRequestsChecked(report.getRequestsChecked() + batch.size);
+                report.setEscalated(report.getEscalated() + batch.escalated);
+
+                // Committed: one digest per manager for the batch
+                for (Map.Entry<Long, List<LeaveRequest>> digest : batch.digests.entrySet()) {
+                    notificationService.sendEscalationDigest(batch.managers.get(digest.getKey()), digest.getValue());
+                }
+                report.setManagersNotified(report.getManagersNotified() + batch.digests.size());
+
+                // Through the normal approval path, one transaction each, so balances, coverage and events stay right
+                for (Long[] approval : batch.approvals) {
+                    try {
+                        leaveRequestService.approveLeaveRequest(approval[0],
+                                "Automatically approved after " + pendingAgeHours + " hours without review", approval[1]);
+                        report.setAutoApproved(report.getAutoApproved() + 1);
+                    } catch (RuntimeException e) {
+                        logger.debug("Auto-approval of leave request {} refused: {}", approval[0], e.getMessage());
+                        report.setFailed(report.getFailed() + 1);
+                    }
+                }
+
+                if (batch.size < batchSize) {
+                    break;
+                }
+                afterSubmittedAt = batch.lastSubmittedAt;
+                afterId = batch.lastId;
+            }
+            report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+
+            meterRegistry.counter("hrleave.escalations", "action", "escalated").increment(report.getEscalated());
+            meterRegistry.counter("hrleave.escalations", "action", "auto_approved").increment(report.getAutoApproved());
+            meterRegistry.counter("hrleave.escalations", "action", "failed").increment(report.getFailed());
+            logger.info("Escalation sweep: {} stale requests checked, {} escalated, {} auto-approved, {} refused in {} ms",
+                    report.getRequestsChecked(), report.getEscalated(), report.getAutoApproved(), report.getFailed(),
+                    report.getDurationMs());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Batch escalateBatch(LocalDateTime cutoff, LocalDateTime afterSubmittedAt, Long afterId, User requestedBy) {
+        List<LeaveRequest> page = leaveRequestRepository.findStalePage(LeaveRequest.Status.PENDING, cutoff,
+                afterSubmittedAt, afterId, maxEscalations, autoApprove, PageRequest.of(0, batchSize));
+
+        Batch batch = new Batch();
+        batch.size = page.size();
+        if (page.isEmpty()) {
+            return batch;
+        }
+        batch.lastSubmittedAt = page.get(page.size() - 1).getSubmittedAt();
+        batch.lastId = page.get(page.size() - 1).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (LeaveRequest leaveRequest : page) {
+            LocalDateTime waitingSince = leaveRequest.getEscalatedAt() != null
+                    ? leaveRequest.getEscalatedAt() : leaveRequest.getSubmittedAt();
+            if (!waitingSince.isBefore(cutoff)) {
+                continue;
+            }
+
+            User assignee = leaveRequest.getEscalatedTo() != null
+                    ? leaveRequest.getEscalatedTo() : leaveRequest.getUser().getManager();
+            User next = assignee != null ? assignee.getManager() : null;
+            if (next != null && leaveRequest.getEscalations() < maxEscalations) {
+                if (leaveRequest.getEscalatedTo() != null) {
+                    pendingRequestCache.invalidateAfterCommit(leaveRequest.getEscalatedTo().getId());
+                }
+                pendingRequestCache.invalidateAfterCommit(next.getId());
+
+                leaveRequest.setEscalatedTo(next);
+                leaveRequest.setEscalatedAt(now);
+                leaveRequest.setEscalations(leaveRequest.getEscalations() + 1);
+                auditService.logAction(requestedBy, "ESCALATE_LEAVE_REQUEST", "LeaveRequest", leaveRequest.getId(),
+                        "Escalated to manager " + next.getId() + " after " + pendingAgeHours + " hours pending");
+
+                batch.managers.putIfAbsent(next.getId(), next);
+                batch.digests.computeIfAbsent(next.getId(), id -> new ArrayList<>()).add(leaveRequest);
+                batch.escalated++;
+            } else if (autoApprove && assignee != null) {
+                batch.approvals.add(new Long[]{leaveRequest.getId(), assignee.getId()});
+            }
+        }
+        leaveRequestViewService.refresh(batch.digests.values().stream()
+                .flatMap(List::stream).map(LeaveRequest::getId).collect(Collectors.toList()));
+        return batch;
+    }
+}
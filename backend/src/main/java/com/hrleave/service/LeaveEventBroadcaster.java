@@ -0,0 +1,243 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.LeaveRequestDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes leave request events to the server-sent event streams of the users concerned.
+// Streams are async servlet responses: an idle subscriber holds a connection but no thread.
+// Each stream has its own bounded queue drained by a small sender pool, so publishing never blocks and a slow client
+// only delays itself: a stream whose queue fills up, or whose current send takes longer than send-timeout-ms, is
+// dropped and the client reconnects.
+@Service
+public class LeaveEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveEventBroadcaster.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leave.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${leave.events.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    @Value("${leave.events.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${leave.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${leave.events.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger streams = new AtomicInteger();
+
+    private ExecutorService senders;
+    private Counter dropped;
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started, 0 when idle
+        private volatile long sendingSince;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                drop("queue full");
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    sendingSince = System.nanoTime();
+                    send(this, event);
+                    sendingSince = 0;
+                }
+                draining.set(false);
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+            if (closed.get()) {
+                queue.clear();
+                // Completed here rather than by whoever dropped the stream: completing waits for a send in progress
+                if (completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            }
+        }
+
+        boolean stalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        }
+
+        // Stops routing events to the stream; the sender completes it once its current send returns
+        void drop(String reason) {
+            if (closed.compareAndSet(false, true)) {
+                logger.debug("Dropping event stream of user {}: {}", userId, reason);
+                dropped.increment();
+                unsubscribe(this);
+                if (draining.compareAndSet(false, true)) {
+                    senders.execute(this::drain);
+                }
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "leave-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("hrleave.events.streams", streams, AtomicInteger::get)
+                .description("Open leave event streams")
+                .register(meterRegistry);
+        dropped = Counter.builder("hrleave.events.dropped")
+                .description("Event streams dropped for falling behind")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            if (subscriber.completed.compareAndSet(false, true)) {
+                subscriber.emitter.complete();
+            }
+        }));
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        Subscriber[] evicted = new Subscriber[1];
+        subscribers.compute(userId, (id, list) -> {
+            if (list == null) {
+                list = new CopyOnWriteArrayList<>();
+            }
+            // Oldest stream gives way, e.g. a tab the browser never closed
+            if (list.size() >= maxStreamsPerUser) {
+                evicted[0] = list.remove(0);
+            }
+            list.add(subscriber);
+            return list;
+        });
+        streams.incrementAndGet();
+        if (evicted[0] != null) {
+            streams.decrementAndGet();
+            evicted[0].drop("too many streams");
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // Flushes the response headers so the client sees the stream open immediately; sends made before the
+        // response is handed over are buffered by the emitter
+        send(subscriber, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    // Queues the event for the given users once the surrounding transaction has committed
+    public void publishAfterCommit(String eventName, LeaveRequestDto payload, Collection<Long> userIds) {
+        AfterCommit.run(() -> {
+            for (Long userId : userIds) {
+                List<Subscriber> list = subscribers.get(userId);
+                if (list == null) {
+                    continue;
+                }
+                for (Subscriber subscriber : list) {
+                    subscriber.enqueue(SseEmitter.event().name(eventName).data(payload));
+                }
+            }
+        });
+    }
+
+    // Comment lines keep proxies from closing idle streams and reveal clients that went away; streams stuck in a
+    // send since the last beat are dropped
+    @Scheduled(fixedDelayString = "${leave.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(list -> {
+            for (Subscriber subscriber : list) {
+                if (subscriber.stalled(now)) {
+                    subscriber.drop("send timed out");
+                } else {
+                    subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        });
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping event stream of user {}: {}", subscriber.userId, e.getMessage());
+            subscriber.closed.set(true);
+            unsubscribe(subscriber);
+            if (subscriber.completed.compareAndSet(false, true)) {
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            if (list.remove(subscriber)) {
+                streams.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
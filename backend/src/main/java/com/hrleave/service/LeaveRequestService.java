@@ -1,24 +1,42 @@
 package com.hrleave.service;
 
 import com.hrleave.dto.LeaveRequestDto;
+import com.hrleave.dto.VersionStamp;
+import com.hrleave.entity.ArchivedLeaveRequest;
 import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.LeaveRequestView;
 import com.hrleave.entity.User;
+import com.hrleave.repository.ArchivedLeaveRequestRepository;
 import com.hrleave.repository.LeaveRequestRepository;
+import com.hrleave.repository.LeaveRequestViewRepository;
 import com.hrleave.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class LeaveRequestService {
 
+    private static final List<LeaveRequest.Status> ACTIVE_STATUSES =
+            List.of(LeaveRequest.Status.PENDING, LeaveRequest.Status.APPROVED);
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private LeaveRequestRepository leaveRequestRepository;
 
@@ -34,39 +52,140 @@ public class LeaveRequestService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private AbsenceCalendarService absenceCalendarService;
+
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
+
+    @Autowired
+    private CoverageService coverageService;
+
+    @Autowired
+    private LeaveStatsService leaveStatsService;
+
+    @Autowired
+    private LeaveEventBroadcaster leaveEventBroadcaster;
+
+    @Autowired
+    private LeaveSearchService leaveSearchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PendingRequestCache pendingRequestCache;
+
+    @Autowired
+    private ArchivedLeaveRequestRepository archivedLeaveRequestRepository;
+
+    @Autowired
+    private LeaveArchiveService leaveArchiveService;
+
+    @Autowired
+    private LeaveRequestViewRepository leaveRequestViewRepository;
+
+    @Autowired
+    private LeaveRequestViewService leaveRequestViewService;
+
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getAllLeaveRequests() {
-        return leaveRequestRepository.findAll().stream()
+        return leaveRequestViewRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Optional<LeaveRequestDto> getLeaveRequestById(Long id) {
         return leaveRequestRepository.findById(id)
-                .map(this::convertToDto);
+                .map(this::convertToDto)
+                .or(() -> archivedLeaveRequestRepository.findWithUsersById(id).map(this::convertToDto));
     }
 
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getLeaveRequestsByUserId(Long userId) {
-        return leaveRequestRepository.findByUserId(userId).stream()
+        return leaveRequestViewRepository.findByUserId(userId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    // Requests overlapping the range, by start date; a range starting before the archive cutoff also reads the archive
+    @Transactional(readOnly = true)
+    public List<LeaveRequestDto> getLeaveRequestsByUserId(Long userId, LocalDate startDate, LocalDate endDate) {
+        LocalDate rangeEnd = endDate != null ? endDate : OPEN_END;
+        if (rangeEnd.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+
+        Map<Long, LeaveRequestDto> requests = new LinkedHashMap<>();
+        for (LeaveRequestView view : leaveRequestViewRepository.findByUserIdOverlapping(userId, startDate, rangeEnd)) {
+            requests.put(view.getId(), convertToDto(view));
+        }
+        if (leaveArchiveService.includesArchive(startDate)) {
+            // A chunk archived between the two reads would otherwise be listed twice
+            for (ArchivedLeaveRequest archived : archivedLeaveRequestRepository.findByUserIdOverlapping(userId, startDate, rangeEnd)) {
+                requests.putIfAbsent(archived.getId(), convertToDto(archived));
+            }
+        }
+        return requests.values().stream()
+                .sorted(Comparator.comparing(LeaveRequestDto::getStartDate))
+                .collect(Collectors.toList());
+    }
+
+    // Changes whenever one of the user's requests is created or updated, or the user's own profile changes
+    @Transactional(readOnly = true)
+    public VersionStamp getLeaveRequestsVersion(User user) {
+        Object[] row = leaveRequestRepository.findVersionByUserId(user.getId()).get(0);
+        long count = (Long) row[0];
+        LocalDateTime lastModified = (LocalDateTime) row[1];
+        if (lastModified == null || (user.getUpdatedAt() != null && user.getUpdatedAt().isAfter(lastModified))) {
+            lastModified = user.getUpdatedAt();
+        }
+        return new VersionStamp("requests-" + user.getId() + "-" + count + "-" + stampOf((LocalDateTime) row[1])
+                + "-" + stampOf(user.getUpdatedAt()), lastModified);
+    }
+
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getLeaveRequestsByManagerId(Long managerId) {
-        return leaveRequestRepository.findByManagerId(managerId).stream()
+        return leaveRequestViewRepository.findByManagerId(managerId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    // Served from PendingRequestCache, which loads in its own transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<LeaveRequestDto> getPendingRequestsByManagerId(Long managerId) {
-        return leaveRequestRepository.findByManagerIdAndStatus(managerId, LeaveRequest.Status.PENDING).stream()
+        return pendingRequestCache.get(managerId, () -> {
+            // Two index scans rather than one OR over both columns
+            Map<Long, LeaveRequestDto> requests = new LinkedHashMap<>();
+            for (LeaveRequestView view : leaveRequestViewRepository.findByManagerIdAndStatus(managerId, LeaveRequest.Status.PENDING)) {
+                requests.put(view.getId(), convertToDto(view));
+            }
+            for (LeaveRequestView view : leaveRequestViewRepository.findByEscalatedToIdAndStatus(managerId, LeaveRequest.Status.PENDING)) {
+                requests.putIfAbsent(view.getId(), convertToDto(view));
+            }
+            return requests.values().stream().collect(Collectors.toList());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaveRequestDto> getLeaveRequestsByOrganization(Long managerId, LeaveRequest.Status status) {
+        List<LeaveRequestView> requests = status != null
+                ? leaveRequestViewRepository.findByOrganizationAndStatus(managerId, status)
+                : leaveRequestViewRepository.findByOrganization(managerId);
+        return requests.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    @Timed(value = "hrleave.leave_requests", extraTags = {"operation", "create"})
     public LeaveRequestDto createLeaveRequest(LeaveRequestDto requestDto, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.lockById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
 
+        validateDates(requestDto, userId, null);
+        requestDto.setDays(countWorkingDays(requestDto, user));
+
         // Validate leave balance
         if (!leaveBalanceService.hasEnoughBalance(userId, requestDto.getType(), requestDto.getDays())) {
             throw new RuntimeException("Insufficient leave balance");
@@ -83,6 +202,12 @@ public class LeaveRequestService {
         leaveRequest.setSubmittedAt(LocalDateTime.now());
 
         LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+        leaveRequestViewService.insert(savedRequest.getId());
+        leaveSearchService.indexLeaveRequest(savedRequest);
+        invalidatePendingCache(savedRequest);
+
+        leaveStatsService.recordTransition(user.getDepartment(), null, null,
+                savedRequest.getType(), savedRequest.getStatus());
 
         auditService.logAction(user, "CREATE_LEAVE_REQUEST", "LeaveRequest", savedRequest.getId(),
                 "Created leave request for " + requestDto.getDays() + " days");
@@ -92,14 +217,16 @@ public class LeaveRequestService {
             notificationService.sendLeaveRequestNotification(savedRequest, user.getManager());
         }
 
-        return convertToDto(savedRequest);
+        LeaveRequestDto createdRequest = convertToDto(savedRequest);
+        publishEvent("created", savedRequest, createdRequest);
+        return createdRequest;
     }
 
     public LeaveRequestDto updateLeaveRequest(Long id, LeaveRequestDto requestDto, Long userId) {
         LeaveRequest leaveRequest = leaveRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Leave request not found with id: " + id));
 
-        User user = userRepository.findById(userId)
+        User user = userRepository.lockById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
 
         // Only allow updates if request is pending and user owns the request
@@ -111,6 +238,10 @@ public class LeaveRequestService {
             throw new RuntimeException("User can only update their own leave requests");
         }
 
+        validateDates(requestDto, userId, id);
+        requestDto.setDays(countWorkingDays(requestDto, user));
+
+        LeaveRequest.LeaveType oldType = leaveRequest.getType();
         leaveRequest.setType(requestDto.getType());
         leaveRequest.setStartDate(requestDto.getStartDate());
         leaveRequest.setEndDate(requestDto.getEndDate());
@@ -118,6 +249,11 @@ public class LeaveRequestService {
         leaveRequest.setReason(requestDto.getReason());
 
         LeaveRequest updatedRequest = leaveRequestRepository.save(leaveRequest);
+        leaveRequestViewService.refresh(updatedRequest.getId());
+        leaveSearchService.indexLeaveRequest(updatedRequest);
+        invalidatePendingCache(updatedRequest);
+        leaveStatsService.recordTransition(user.getDepartment(), oldType, LeaveRequest.Status.PENDING,
+                updatedRequest.getType(), LeaveRequest.Status.PENDING);
 
         auditService.logAction(user, "UPDATE_LEAVE_REQUEST", "LeaveRequest", updatedRequest.getId(),
                 "Updated leave request");
@@ -125,10 +261,12 @@ public class LeaveRequestService {
         return convertToDto(updatedRequest);
     }
 
+    @Timed(value = "hrleave.leave_requests", extraTags = {"operation", "approve"})
     public LeaveRequestDto approveLeaveRequest(Long id, String comments, Long reviewerId) {
         return updateLeaveRequestStatus(id, LeaveRequest.Status.APPROVED, comments, reviewerId);
     }
 
+    @Timed(value = "hrleave.leave_requests", extraTags = {"operation", "reject"})
     public LeaveRequestDto rejectLeaveRequest(Long id, String comments, Long reviewerId) {
         return updateLeaveRequestStatus(id, LeaveRequest.Status.REJECTED, comments, reviewerId);
     }
@@ -144,28 +282,46 @@ public class LeaveRequestService {
             throw new RuntimeException("Leave request is not pending");
         }
 
-        leaveRequest.setStatus(status);
-        leaveRequest.setReviewedAt(LocalDateTime.now());
-        leaveRequest.setReviewedBy(reviewer);
-        leaveRequest.setReviewerComments(comments);
+        // Reserve department coverage before committing to the approval
+        if (status.equals(LeaveRequest.Status.APPROVED)) {
+            coverageService.reserve(leaveRequest.getUser().getDepartment(),
+                    leaveRequest.getStartDate(), leaveRequest.getEndDate());
+        }
+
+        // Of concurrent decisions, or a decision racing a cancel or an edit, only the first one updates the row
+        if (leaveRequestRepository.review(id, LeaveRequest.Status.PENDING, leaveRequest.getVersion(), status,
+                reviewer, comments, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Leave request was changed concurrently");
+        }
+        entityManager.refresh(leaveRequest);
+        leaveRequestViewService.refresh(id);
 
-        LeaveRequest updatedRequest = leaveRequestRepository.save(leaveRequest);
+        LeaveRequest updatedRequest = leaveRequest;
+        leaveSearchService.indexLeaveRequest(updatedRequest);
+        invalidatePendingCache(updatedRequest);
 
         // Update leave balance if approved
         if (status.equals(LeaveRequest.Status.APPROVED)) {
             leaveBalanceService.deductLeaveBalance(leaveRequest.getUser().getId(), 
                     leaveRequest.getType(), leaveRequest.getDays());
+            absenceCalendarService.recordApproval(updatedRequest);
         }
 
+        leaveStatsService.recordTransition(leaveRequest.getUser().getDepartment(), leaveRequest.getType(),
+                LeaveRequest.Status.PENDING, leaveRequest.getType(), status);
+
         auditService.logAction(reviewer, status.name() + "_LEAVE_REQUEST", "LeaveRequest", updatedRequest.getId(),
                 status.name().toLowerCase() + " leave request");
 
         // Send notification to employee
         notificationService.sendLeaveRequestStatusNotification(updatedRequest);
 
-        return convertToDto(updatedRequest);
+        LeaveRequestDto reviewedRequest = convertToDto(updatedRequest);
+        publishEvent(status.name().toLowerCase(), updatedRequest, reviewedRequest);
+        return reviewedRequest;
     }
 
+    @Timed(value = "hrleave.leave_requests", extraTags = {"operation", "cancel"})
     public void cancelLeaveRequest(Long id, Long userId) {
         LeaveRequest leaveRequest = leaveRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Leave request not found with id: " + id));
@@ -177,23 +333,95 @@ public class LeaveRequestService {
             throw new RuntimeException("User can only cancel their own leave requests");
         }
 
+        // Rejected and cancelled requests are closed; cancelling them again would count as a second transition
+        if (leaveRequest.getStatus().equals(LeaveRequest.Status.REJECTED)
+                || leaveRequest.getStatus().equals(LeaveRequest.Status.CANCELLED)) {
+            throw new RuntimeException("Leave request is already " + leaveRequest.getStatus().name().toLowerCase());
+        }
+
         if (leaveRequest.getStatus().equals(LeaveRequest.Status.APPROVED) && 
             leaveRequest.getStartDate().isBefore(LocalDate.now())) {
             throw new RuntimeException("Cannot cancel approved leave request that has already started");
         }
 
         LeaveRequest.Status oldStatus = leaveRequest.getStatus();
-        leaveRequest.setStatus(LeaveRequest.Status.CANCELLED);
+        if (leaveRequestRepository.transition(id, oldStatus, leaveRequest.getVersion(),
+                LeaveRequest.Status.CANCELLED, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Leave request was changed concurrently");
+        }
+        entityManager.refresh(leaveRequest);
+        leaveRequestViewService.refresh(id);
 
         // If the request was approved, restore the leave balance
         if (oldStatus.equals(LeaveRequest.Status.APPROVED)) {
             leaveBalanceService.restoreLeaveBalance(userId, leaveRequest.getType(), leaveRequest.getDays());
+            absenceCalendarService.recordCancellation(leaveRequest);
+            coverageService.releaseAfterCommit(leaveRequest.getUser().getDepartment(),
+                    leaveRequest.getStartDate(), leaveRequest.getEndDate());
         }
 
-        leaveRequestRepository.save(leaveRequest);
+        if (oldStatus.equals(LeaveRequest.Status.PENDING)) {
+            invalidatePendingCache(leaveRequest);
+        }
+        leaveStatsService.recordTransition(user.getDepartment(), leaveRequest.getType(), oldStatus,
+                leaveRequest.getType(), LeaveRequest.Status.CANCELLED);
 
         auditService.logAction(user, "CANCEL_LEAVE_REQUEST", "LeaveRequest", id,
                 "Cancelled leave request");
+
+        publishEvent("cancelled", leaveRequest, convertToDto(leaveRequest));
+    }
+
+    // Callers hold the user's row lock (UserRepository.lockById) so the overlap check stays true until they commit
+    private void validateDates(LeaveRequestDto requestDto, Long userId, Long excludeId) {
+        if (requestDto.getEndDate().isBefore(requestDto.getStartDate())) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+
+        // Pending and approved requests of the same user may not overlap
+        if (leaveRequestRepository.existsOverlapping(userId, ACTIVE_STATUSES,
+                requestDto.getStartDate(), requestDto.getEndDate(), excludeId)) {
+            throw new RuntimeException("Leave request overlaps an existing pending or approved request");
+        }
+    }
+
+    // Days are derived from the holiday calendar rather than trusted from the client
+    private int countWorkingDays(LeaveRequestDto requestDto, User user) {
+        int days = holidayCalendarService.countWorkingDays(user, requestDto.getStartDate(), requestDto.getEndDate());
+        if (days == 0) {
+            throw new RuntimeException("Leave request does not cover any working day");
+        }
+        return days;
+    }
+
+    // The request is in the pending list of the requester's manager and of the manager it was escalated to
+    private void invalidatePendingCache(LeaveRequest leaveRequest) {
+        User manager = leaveRequest.getUser().getManager();
+        if (manager != null) {
+            pendingRequestCache.invalidateAfterCommit(manager.getId());
+        }
+        if (leaveRequest.getEscalatedTo() != null) {
+            pendingRequestCache.invalidateAfterCommit(leaveRequest.getEscalatedTo().getId());
+        }
+    }
+
+    // Pushes the change after commit to the event streams of the employee, their manager and the manager the request
+    // was escalated to
+    private void publishEvent(String eventName, LeaveRequest leaveRequest, LeaveRequestDto payload) {
+        User user = leaveRequest.getUser();
+        Set<Long> recipients = new LinkedHashSet<>();
+        recipients.add(user.getId());
+        if (user.getManager() != null) {
+            recipients.add(user.getManager().getId());
+        }
+        if (leaveRequest.getEscalatedTo() != null) {
+            recipients.add(leaveRequest.getEscalatedTo().getId());
+        }
+        leaveEventBroadcaster.publishAfterCommit(eventName, payload, recipients);
+    }
+
+    private static String stampOf(LocalDateTime time) {
+        return time != null ? time.toEpochSecond(ZoneOffset.UTC) + "." + time.getNano() : "0";
     }
 
     private LeaveRequestDto convertToDto(LeaveRequest leaveRequest) {
@@ -222,6 +450,70 @@ public class LeaveRequestService {
             dto.setReviewerLastName(leaveRequest.getReviewedBy().getLastName());
         }
 
+        if (leaveRequest.getEscalatedTo() != null) {
+            dto.setEscalatedToId(leaveRequest.getEscalatedTo().getId());
+            dto.setEscalatedAt(leaveRequest.getEscalatedAt());
+        }
+
+        return dto;
+    }
+
+    private LeaveRequestDto convertToDto(LeaveRequestView view) {
+        LeaveRequestDto dto = new LeaveRequestDto();
+        dto.setId(view.getId());
+        dto.setType(view.getType());
+        dto.setStartDate(view.getStartDate());
+        dto.setEndDate(view.getEndDate());
+        dto.setDays(view.getDays());
+        dto.setReason(view.getReason());
+        dto.setStatus(view.getStatus());
+        dto.setSubmittedAt(view.getSubmittedAt());
+        dto.setReviewedAt(view.getReviewedAt());
+        dto.setReviewerComments(view.getReviewerComments());
+
+        dto.setUserId(view.getUserId());
+        dto.setUserFirstName(view.getUserFirstName());
+        dto.setUserLastName(view.getUserLastName());
+        dto.setUserEmail(view.getUserEmail());
+
+        dto.setReviewedById(view.getReviewedById());
+        dto.setReviewerFirstName(view.getReviewerFirstName());
+        dto.setReviewerLastName(view.getReviewerLastName());
+
+        dto.setEscalatedToId(view.getEscalatedToId());
+        dto.setEscalatedAt(view.getEscalatedAt());
+        return dto;
+    }
+
+    private LeaveRequestDto convertToDto(ArchivedLeaveRequest archived) {
+        LeaveRequestDto dto = new LeaveRequestDto();
+        dto.setId(archived.getId());
+        dto.setType(archived.getType());
+        dto.setStartDate(archived.getStartDate());
+        dto.setEndDate(archived.getEndDate());
+        dto.setDays(archived.getDays());
+        dto.setReason(archived.getReason());
+        dto.setStatus(archived.getStatus());
+        dto.setSubmittedAt(archived.getSubmittedAt());
+        dto.setReviewedAt(archived.getReviewedAt());
+        dto.setReviewerComments(archived.getReviewerComments());
+
+        dto.setUserId(archived.getUser().getId());
+        dto.setUserFirstName(archived.getUser().getFirstName());
+        dto.setUserLastName(archived.getUser().getLastName());
+        dto.setUserEmail(archived.getUser().getEmail());
+
+        if (archived.getReviewedBy() != null) {
+            dto.setReviewedById(archived.getReviewedBy().getId());
+            dto.setReviewerFirstName(archived.getReviewedBy().getFirstName());
+            dto.setReviewerLastName(archived.getReviewedBy().getLastName());
+        }
+
+        if (archived.getEscalatedTo() != null) {
+            dto.setEscalatedToId(archived.getEscalatedTo().getId());
+            dto.setEscalatedAt(archived.getEscalatedAt());
+        }
+
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.ReadModelRunDto;
+import com.hrleave.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Maintains leave_request_views, the denormalized read model behind the leave request list endpoints. Writes of
+// LeaveRequestService and UserService refresh the affected rows in their own transaction, so that a list read
+// right after a write sees it. Rows are always derived from leave_requests and users by the same statement, which
+// also serves the chunked rebuild.
+@Service
+public class LeaveRequestViewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveRequestViewService.class);
+
+    private static final String COPY_SQL = "INSERT INTO leave_request_views (id, user_id, user_first_name, "
+            + "user_last_name, user_email, manager_id, department, type, start_date, end_date, days, reason, status, "
+            + "submitted_at, reviewed_at, reviewer_comments, reviewed_by, reviewer_first_name, reviewer_last_name, "
+            + "escalated_to, escalated_at) "
+            + "SELECT lr.id, u.id, u.first_name, u.last_name, u.email, u.manager_id, u.department, lr.type, "
+            + "lr.start_date, lr.end_date, lr.days, lr.reason, lr.status, lr.submitted_at, lr.reviewed_at, "
+            + "lr.reviewer_comments, lr.reviewed_by, r.first_name, r.last_name, lr.escalated_to, lr.escalated_at "
+            + "FROM leave_requests lr JOIN users u ON u.id = lr.user_id LEFT JOIN users r ON r.id = lr.reviewed_by ";
+
+    private static final String DELETE_ONE_SQL = "DELETE FROM leave_request_views WHERE id = ?";
+    private static final String COPY_ONE_SQL = COPY_SQL + "WHERE lr.id = ?";
+    private static final String DELETE_RANGE_SQL = "DELETE FROM leave_request_views WHERE id BETWEEN ? AND ?";
+    private static final String COPY_RANGE_SQL = COPY_SQL + "WHERE lr.id BETWEEN ? AND ?";
+    private static final String DELETE_REMOVED_SQL = "DELETE FROM leave_request_views WHERE id BETWEEN ? AND ? "
+            + "AND id NOT IN (SELECT id FROM leave_requests WHERE id BETWEEN ? AND ?)";
+    private static final String UPDATE_REQUESTER_SQL = "UPDATE leave_request_views SET user_first_name = ?, "
+            + "user_last_name = ?, user_email = ?, manager_id = ?, department = ? WHERE user_id = ?";
+    private static final String UPDATE_REVIEWER_SQL = "UPDATE leave_request_views SET reviewer_first_name = ?, "
+            + "reviewer_last_name = ? WHERE reviewed_by = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuditService auditService;
+
+    // Rebuilds at startup when the row count differs from leave_requests, e.g. after the dataset generator ran
+    @Value("${leave.read-model.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${leave.read-model.chunk-size:5000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        Long requests = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leave_requests", Long.class);
+        Long views = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leave_request_views", Long.class);
+        if (requests.equals(views)) {
+            return;
+        }
+        logger.info("Leave request read model holds {} rows for {} requests, rebuilding", views, requests);
+        try {
+            rebuild(null);
+        } catch (RuntimeException e) {
+            logger.warn("Leave request read model startup rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    // Copies a request created by the caller's transaction. A plain insert: on InnoDB a DELETE of the id, which has
+    // no row yet, would take a gap lock above the highest id, and two concurrent creates would then deadlock on
+    // each other's insert
+    public void insert(Long requestId) {
+        entityManager.flush();
+        jdbcTemplate.update(COPY_ONE_SQL, requestId);
+    }
+
+    // Re-derives the row of an existing request from leave_requests within the caller's transaction
+    public void refresh(Long requestId) {
+        // Pending entity changes must reach the database before the row is copied in SQL
+        entityManager.flush();
+        jdbcTemplate.update(DELETE_ONE_SQL, requestId);
+        jdbcTemplate.update(COPY_ONE_SQL, requestId);
+    }
+
+    public void refresh(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<Object[]> args = requestIds.stream().map(id -> new Object[]{id}).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(DELETE_ONE_SQL, args);
+        jdbcTemplate.batchUpdate(COPY_ONE_SQL, args);
+    }
+
+    // The requester's name, email, manager or department changed
+    public void updateRequester(User user) {
+        jdbcTemplate.update(UPDATE_REQUESTER_SQL, user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getManager() != null ? user.getManager().getId() : null, user.getDepartment(), user.getId());
+    }
+
+    // The reviewer's name changed
+    public void updateReviewer(User user) {
+        jdbcTemplate.update(UPDATE_REVIEWER_SQL, user.getFirstName(), user.getLastName(), user.getId());
+    }
+
+    // Drops rows of the id range whose request left leave_requests, within the caller's transaction
+    public void removeDeleted(long fromId, long toId) {
+        jdbcTemplate.update(DELETE_REMOVED_SQL, fromId, toId, fromId, toId);
+    }
+
+    // Rewrites every row from leave_requests in windows of chunk-size ids, each in its own transaction; writes to a
+    // window already rebuilt refresh their rows as usual
+    public ReadModelRunDto rebuild(User requestedBy) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Leave request read model rebuild is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            ReadModelRunDto report = new ReadModelRunDto();
+
+            Long lastId = jdbcTemplate.queryForObject("SELECT GREATEST(COALESCE((SELECT MAX(id) FROM leave_requests), 0), "
+                    + "COALESCE((SELECT MAX(id) FROM leave_request_views), 0))", Long.class);
+            for (long windowStart = 1; windowStart <= lastId; windowStart += chunkSize) {
+                long fromId = windowStart;
+                long toId = windowStart + chunkSize - 1;
+                int written = chunkTransaction.execute(status -> {
+                    jdbcTemplate.update(DELETE_RANGE_SQL, fromId, toId);
+                    return jdbcTemplate.update(COPY_RANGE_SQL, fromId, toId);
+                });
+                report.setRequestsWritten(report.getRequestsWritten() + written);
+                report.setChunks(report.getChunks() + 1);
+            }
+            report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+
+            logger.info("Leave request read model rebuilt: {} rows in {} chunks in {} ms",
+                    report.getRequestsWritten(), report.getChunks(), report.getDurationMs());
+            auditService.logAction(requestedBy, "REBUILD_LEAVE_REQUEST_VIEWS", "LeaveRequest", null,
+                    "Rebuilt " + report.getRequestsWritten() + " leave request read model rows");
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.SearchResultDto;
+import com.hrleave.entity.AuditLog;
+import com.hrleave.entity.LeaveRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Local Lucene index over leave request reasons, reviewer comments and audit details. Searches never touch the
+// database: the index is fed after commit by this instance's writes, caught up periodically from rows written
+// since the last catch-up (other instances, JDBC batch jobs, lost updates) and rebuilt in bulk when it is empty.
+@Service
+public class LeaveSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveSearchService.class);
+
+    public static final String LEAVE_REQUEST = "leave-request";
+    public static final String AUDIT = "audit";
+
+    private static final String KEY_FIELD = "key";
+    private static final String TYPE_FIELD = "type";
+    private static final String ID_FIELD = "id";
+    private static final String TEXT_FIELD = "text";
+    private static final Set<String> HIT_FIELDS = Set.of(TYPE_FIELD, ID_FIELD);
+
+    // Commit user data: rows written before this time are in the index
+    private static final String CAUGHT_UP_TO = "caughtUpTo";
+
+    // Rows written this long before the last catch-up are read again, for transactions that committed late,
+    // replica lag and clock skew between instances
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final String ALL_LEAVE_REQUESTS_SQL =
+            "SELECT id, reason, reviewer_comments FROM leave_requests WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String ALL_AUDITS_SQL = "SELECT id, details FROM audit_logs WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String CHANGED_LEAVE_REQUESTS_SQL =
+            "SELECT id, reason, reviewer_comments FROM leave_requests WHERE updated_at >= ?";
+    private static final String NEW_AUDITS_SQL = "SELECT id, details FROM audit_logs WHERE created_at >= ?";
+    // Archival removes requests from this instance's index only, and a catch-up reading a lagging replica can put
+    // back one archived meanwhile
+    private static final String ARCHIVED_LEAVE_REQUESTS_SQL = "SELECT id FROM leave_requests_archive WHERE archived_at >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leave.search.index-dir}")
+    private String indexDir;
+
+    @Value("${leave.search.batch-size:5000}")
+    private int batchSize;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Lucene commits do file I/O; a ReentrantLock does not pin a virtual thread the way a monitor does
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private volatile boolean closing;
+    private volatile LocalDateTime caughtUpTo;
+    private LocalDateTime committedCaughtUpTo;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ExecutorService indexer;
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (CAUGHT_UP_TO.equals(entry.getKey())) {
+                    caughtUpTo = LocalDateTime.parse(entry.getValue());
+                }
+            }
+        }
+        committedCaughtUpTo = caughtUpTo;
+
+        indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        new ExecutorServiceMetrics(indexer, "search-indexer", Tags.empty()).bindTo(meterRegistry);
+
+        // Bulk reads go to the replica when there is one
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        closing = true;
+        indexer.shutdown();
+        indexer.awaitTermination(10, TimeUnit.SECONDS);
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    // In the background: a bulk rebuild can take minutes, searches return what is indexed so far meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (running.compareAndSet(false, true)) {
+            indexer.submit(() -> {
+                try {
+                    if (caughtUpTo == null) {
+                        rebuild();
+                    } else {
+                        catchUp();
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Search index startup indexing failed: {}", e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leave.search.catch-up-interval-ms:60000}",
+               initialDelayString = "${leave.search.catch-up-interval-ms:60000}")
+    public void scheduledCatchUp() {
+        if (caughtUpTo == null || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            logger.warn("Search index catch-up failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leave.search.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${leave.search.commit-interval-ms:60000}")
+    public void commit() throws IOException {
+        commitLock.lock();
+        try {
+            LocalDateTime mark = caughtUpTo;
+            if (!writer.hasUncommittedChanges() && (mark == null || mark.equals(committedCaughtUpTo))) {
+                return;
+            }
+            if (mark != null) {
+                writer.setLiveCommitData(Map.of(CAUGHT_UP_TO, mark.toString()).entrySet());
+            }
+            writer.commit();
+            committedCaughtUpTo = mark;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    // Reindexes every leave request and audit row in the background
+    public void requestRebuild() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Search indexing is already running");
+        }
+        indexer.submit(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("Search index rebuild failed: {}", e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    public void indexLeaveRequest(LeaveRequest leaveRequest) {
+        Document document = document(LEAVE_REQUEST, leaveRequest.getId(),
+                leaveRequest.getReason(), leaveRequest.getReviewerComments());
+        AfterCommit.run(() -> writeQuietly(document));
+    }
+
+    // Archived requests leave the index along with the hot table
+    public void removeLeaveRequests(List<Long> ids) {
+        Term[] keys = ids.stream().map(id -> new Term(KEY_FIELD, LEAVE_REQUEST + ":" + id)).toArray(Term[]::new);
+        AfterCommit.run(() -> {
+            try {
+                writer.deleteDocuments(keys);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to remove {} archived leave requests from the search index: {}", keys.length, e.getMessage());
+            }
+        });
+    }
+
+    public void indexAuditLog(AuditLog auditLog) {
+        Document document = document(AUDIT, auditLog.getId(), auditLog.getDetails());
+        AfterCommit.run(() -> writeQuietly(document));
+    }
+
+    // All query terms must match; results are ranked by BM25 and carry ids only
+    public SearchResultDto search(String text, String type, int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0 || (long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new RuntimeException("Search results are limited to the first " + MAX_RESULT_WINDOW + " hits");
+        }
+        if (type != null && !type.equals(LEAVE_REQUEST) && !type.equals(AUDIT)) {
+            throw new RuntimeException("Unknown search type: " + type);
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new RuntimeException("Search query has no searchable terms");
+        }
+        for (String term : terms) {
+            builder.add(new TermQuery(new Term(TEXT_FIELD, term)), BooleanClause.Occur.MUST);
+        }
+        if (type != null) {
+            builder.add(new TermQuery(new Term(TYPE_FIELD, type)), BooleanClause.Occur.FILTER);
+        }
+        Query query = builder.build();
+
+        SearchResultDto result = new SearchResultDto(text, page, size);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, (page + 1) * size);
+                result.setTotal(topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? topDocs.totalHits.value : searcher.count(query));
+
+                StoredFields storedFields = searcher.storedFields();
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = page * size; i < scoreDocs.length; i++) {
+                    Document hit = storedFields.document(scoreDocs[i].doc, HIT_FIELDS);
+                    result.getHits().add(new SearchResultDto.Hit(hit.get(TYPE_FIELD),
+                            hit.getField(ID_FIELD).numericValue().longValue(), scoreDocs[i].score));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed", e);
+        }
+        return result;
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long leaveRequests = reindexAll(ALL_LEAVE_REQUESTS_SQL, LEAVE_REQUEST);
+        long audits = reindexAll(ALL_AUDITS_SQL, AUDIT);
+        if (closing) {
+            return;
+        }
+
+        // Rows written during the rebuild are read again by the next catch-up
+        caughtUpTo = startedAt;
+        try {
+            commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("Search index rebuilt in {} ms: {} leave requests, {} audit rows",
+                (System.nanoTime() - started) / 1_000_000, leaveRequests, audits);
+    }
+
+    // Keyset batches, each in its own short read transaction. Documents are replaced by key rather than
+    // appended, so rows also indexed after commit while the rebuild runs are not duplicated
+    private long reindexAll(String sql, String type) {
+        long indexed = 0;
+        long lastId = 0;
+        while (!closing) {
+            long fromId = lastId;
+            List<Document> documents = readTransaction.execute(status ->
+                    jdbcTemplate.query(sql, (rs, rowNum) -> document(type, rs), fromId, batchSize));
+            if (documents.isEmpty()) {
+                break;
+            }
+            for (Document document : documents) {
+                write(document);
+            }
+            indexed += documents.size();
+            lastId = documents.get(documents.size() - 1).getField(ID_FIELD).numericValue().longValue();
+        }
+        return indexed;
+    }
+
+    private void catchUp() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Timestamp since = Timestamp.valueOf(caughtUpTo.minus(CATCH_UP_OVERLAP));
+        int[] counts = new int[2];
+        List<Long> archived = new ArrayList<>();
+        readTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.query(CHANGED_LEAVE_REQUESTS_SQL, rs -> {
+                write(document(LEAVE_REQUEST, rs));
+                counts[0]++;
+            }, since);
+            jdbcTemplate.query(NEW_AUDITS_SQL, rs -> {
+                write(document(AUDIT, rs));
+                counts[1]++;
+            }, since);
+            archived.addAll(jdbcTemplate.queryForList(ARCHIVED_LEAVE_REQUESTS_SQL, Long.class, since));
+        });
+        // After the writes above, which may have read a row in its last moments before archival
+        try {
+            writer.deleteDocuments(archived.stream()
+                    .map(id -> new Term(KEY_FIELD, LEAVE_REQUEST + ":" + id)).toArray(Term[]::new));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        caughtUpTo = startedAt;
+        logger.debug("Search index caught up: {} leave requests, {} audit rows, {} archived requests dropped",
+                counts[0], counts[1], archived.size());
+    }
+
+    private void writeQuietly(Document document) {
+        try {
+            write(document);
+        } catch (RuntimeException e) {
+            // The next catch-up indexes the row
+            logger.warn("Failed to index {}: {}", document.get(KEY_FIELD), e.getMessage());
+        }
+    }
+
+    private void write(Document document) {
+        try {
+            writer.updateDocument(new Term(KEY_FIELD, document.get(KEY_FIELD)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Columns: id, then the texts to index
+    private static Document document(String type, ResultSet rs) throws SQLException {
+        String[] texts = new String[rs.getMetaData().getColumnCount() - 1];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = rs.getString(i + 2);
+        }
+        return document(type, rs.getLong(1), texts);
+    }
+
+    private static Document document(String type, Long id, String... texts) {
+        Document document = new Document();
+        document.add(new StringField(KEY_FIELD, type + ":" + id, Field.Store.NO));
+        document.add(new StringField(TYPE_FIELD, type, Field.Store.YES));
+        document.add(new StoredField(ID_FIELD, id));
+        for (String text : texts) {
+            if (text != null) {
+                document.add(new TextField(TEXT_FIELD, text, Field.Store.NO));
+            }
+        }
+        return document;
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(TEXT_FIELD, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+}
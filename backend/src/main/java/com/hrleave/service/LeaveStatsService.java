@@ -0,0 +1,224 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.LeaveStatsDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.repository.ArchivedLeaveRequestRepository;
+import com.hrleave.repository.LeaveRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+public class LeaveStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveStatsService.class);
+
+    private static final LeaveRequest.Status[] STATUSES = LeaveRequest.Status.values();
+    private static final LeaveRequest.LeaveType[] TYPES = LeaveRequest.LeaveType.values();
+    private static final String NO_DEPARTMENT = "UNASSIGNED";
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private ArchivedLeaveRequestRepository archivedLeaveRequestRepository;
+
+    // Request counts per department, indexed by status.ordinal() * TYPES.length + type.ordinal()
+    private volatile Map<String, AtomicLongArray> counters = new ConcurrentHashMap<>();
+
+    // Transitions recorded while a reconciliation counts the table, replayed onto its result before it replaces
+    // the counters; null outside reconciliations
+    private Map<String, AtomicLongArray> pendingDeltas;
+
+    // Transitions share the read side; reconcile() takes the write side to start buffering and to swap the maps, so
+    // that no transition lands in the old map only
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    // Scheduled and startup reconciliations take turns
+    private final Lock reconcileLock = new ReentrantLock();
+
+    // Archived rows never change, so they are only counted again after an archival run
+    private volatile List<Object[]> archivedCounts;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${leave.stats.reconcile-interval-ms:900000}",
+               initialDelayString = "${leave.stats.reconcile-interval-ms:900000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            List<Object[]> archived = archivedCounts;
+            if (archived == null) {
+                archived = archivedLeaveRequestRepository.countGroupedByDepartmentStatusAndType();
+                archivedCounts = archived;
+            }
+
+            // Transitions committed before the count below are in it; those recorded from here on are replayed. Only
+            // one committed just before the count but recorded after this point, a window of microseconds, is
+            // counted twice until the next reconciliation.
+            Map<String, AtomicLongArray> deltas = new ConcurrentHashMap<>();
+            bufferDeltas(deltas);
+            Map<String, AtomicLongArray> rebuilt;
+            try {
+                rebuilt = count(List.of(leaveRequestRepository.countGroupedByDepartmentStatusAndType(), archived));
+            } catch (RuntimeException e) {
+                bufferDeltas(null);
+                throw e;
+            }
+
+            Map<String, AtomicLongArray> previous;
+            swapLock.writeLock().lock();
+            try {
+                for (Map.Entry<String, AtomicLongArray> delta : deltas.entrySet()) {
+                    AtomicLongArray cell = cell(rebuilt, delta.getKey());
+                    for (int i = 0; i < cell.length(); i++) {
+                        cell.addAndGet(i, delta.getValue().get(i));
+                    }
+                }
+                previous = counters;
+                counters = rebuilt;
+                pendingDeltas = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            if (!previous.isEmpty() && !sameCounts(previous, rebuilt)) {
+                logger.warn("Leave statistics drifted from leave_requests and were reconciled");
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    // Moving rows does not change the counters, only where the next reconciliation reads them
+    public void archiveChanged() {
+        archivedCounts = null;
+    }
+
+    // Records a request moving from (oldType, oldStatus) to (newType, newStatus); old values are null on creation
+    public void recordTransition(String department, LeaveRequest.LeaveType oldType, LeaveRequest.Status oldStatus,
+                                 LeaveRequest.LeaveType newType, LeaveRequest.Status newStatus) {
+        AfterCommit.run(() -> {
+            swapLock.readLock().lock();
+            try {
+                apply(counters, department, oldType, oldStatus, newType, newStatus);
+                if (pendingDeltas != null) {
+                    apply(pendingDeltas, department, oldType, oldStatus, newType, newStatus);
+                }
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        });
+    }
+
+    public LeaveStatsDto getStats() {
+        return snapshot(counters);
+    }
+
+    private LeaveStatsDto snapshot(Map<String, AtomicLongArray> source) {
+        long total = 0;
+        long[] byStatus = new long[STATUSES.length];
+        long[] byType = new long[TYPES.length];
+        Map<String, Map<String, Long>> byDepartment = new TreeMap<>();
+
+        for (Map.Entry<String, AtomicLongArray> entry : source.entrySet()) {
+            AtomicLongArray cell = entry.getValue();
+            long[] departmentByStatus = new long[STATUSES.length];
+            for (LeaveRequest.Status status : STATUSES) {
+                for (LeaveRequest.LeaveType type : TYPES) {
+                    long count = cell.get(index(status, type));
+                    departmentByStatus[status.ordinal()] += count;
+                    byType[type.ordinal()] += count;
+                    total += count;
+                }
+                byStatus[status.ordinal()] += departmentByStatus[status.ordinal()];
+            }
+            byDepartment.put(entry.getKey(), toMap(STATUSES, departmentByStatus));
+        }
+
+        return new LeaveStatsDto(total, toMap(STATUSES, byStatus), toMap(TYPES, byType), byDepartment);
+    }
+
+    private void bufferDeltas(Map<String, AtomicLongArray> deltas) {
+        swapLock.writeLock().lock();
+        try {
+            pendingDeltas = deltas;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, AtomicLongArray> count(List<List<Object[]>> groupedCounts) {
+        Map<String, AtomicLongArray> counts = new ConcurrentHashMap<>();
+        for (List<Object[]> rows : groupedCounts) {
+            for (Object[] row : rows) {
+                LeaveRequest.Status status = (LeaveRequest.Status) row[1];
+                LeaveRequest.LeaveType type = (LeaveRequest.LeaveType) row[2];
+                if (status != null && type != null) {
+                    cell(counts, (String) row[0]).addAndGet(index(status, type), (Long) row[3]);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static void apply(Map<String, AtomicLongArray> target, String department, LeaveRequest.LeaveType oldType,
+                              LeaveRequest.Status oldStatus, LeaveRequest.LeaveType newType,
+                              LeaveRequest.Status newStatus) {
+        AtomicLongArray cell = cell(target, department);
+        if (oldType != null && oldStatus != null) {
+            cell.decrementAndGet(index(oldStatus, oldType));
+        }
+        cell.incrementAndGet(index(newStatus, newType));
+    }
+
+    // Every (department, status, type) counter, a department missing on one side counting as zeros
+    private static boolean sameCounts(Map<String, AtomicLongArray> left, Map<String, AtomicLongArray> right) {
+        Set<String> departments = new HashSet<>(left.keySet());
+        departments.addAll(right.keySet());
+        for (String department : departments) {
+            AtomicLongArray a = left.get(department);
+            AtomicLongArray b = right.get(department);
+            for (int i = 0; i < STATUSES.length * TYPES.length; i++) {
+                if ((a != null ? a.get(i) : 0) != (b != null ? b.get(i) : 0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Long> toMap(Enum<?>[] keys, long[] values) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Enum<?> key : keys) {
+            map.put(key.name(), values[key.ordinal()]);
+        }
+        return map;
+    }
+
+    private static AtomicLongArray cell(Map<String, AtomicLongArray> target, String department) {
+        return target.computeIfAbsent(department != null ? department : NO_DEPARTMENT,
+                d -> new AtomicLongArray(STATUSES.length * TYPES.length));
+    }
+
+    private static int index(LeaveRequest.Status status, LeaveRequest.LeaveType type) {
+        return status.ordinal() * TYPES.length + type.ordinal();
+    }
+}
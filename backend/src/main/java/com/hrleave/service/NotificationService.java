@@ -2,6 +2,8 @@ package com.hrleave.service;
 
 import com.hrleave.entity.LeaveRequest;
 import com.hrleave.entity.User;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +12,8 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class NotificationService {
 
@@ -18,7 +22,11 @@ public class NotificationService {
     @Autowired
     private JavaMailSender mailSender;
 
-    @Async
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Async("mailExecutor")
+    @Timed(value = "hrleave.notifications", extraTags = {"type", "request"})
     public void sendLeaveRequestNotification(LeaveRequest leaveRequest, User manager) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -52,10 +60,12 @@ public class NotificationService {
             logger.info("Leave request notification sent to manager: {}", manager.getEmail());
         } catch (Exception e) {
             logger.error("Failed to send leave request notification to manager: {}", manager.getEmail(), e);
+            meterRegistry.counter("hrleave.notifications.failures", "type", "request").increment();
         }
     }
 
-    @Async
+    @Async("mailExecutor")
+    @Timed(value = "hrleave.notifications", extraTags = {"type", "status"})
     public void sendLeaveRequestStatusNotification(LeaveRequest leaveRequest) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -90,6 +100,49 @@ public class NotificationService {
             logger.info("Leave request status notification sent to employee: {}", leaveRequest.getUser().getEmail());
         } catch (Exception e) {
             logger.error("Failed to send leave request status notification to employee: {}", leaveRequest.getUser().getEmail(), e);
+            meterRegistry.counter("hrleave.notifications.failures", "type", "status").increment();
+        }
+    }
+
+    // One message per manager for all the requests escalated to them by a sweep
+    @Async("mailExecutor")
+    @Timed(value = "hrleave.notifications", extraTags = {"type", "escalation"})
+    public void sendEscalationDigest(User manager, List<LeaveRequest> leaveRequests) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(manager.getEmail());
+            message.setSubject("Escalated Leave Requests - " + leaveRequests.size() + " awaiting review");
+
+            StringBuilder requests = new StringBuilder();
+            for (LeaveRequest leaveRequest : leaveRequests) {
+                requests.append(String.format("- %s %s: %s from %s to %s (%d days), submitted %s\n",
+                        leaveRequest.getUser().getFirstName(),
+                        leaveRequest.getUser().getLastName(),
+                        leaveRequest.getType().name(),
+                        leaveRequest.getStartDate(),
+                        leaveRequest.getEndDate(),
+                        leaveRequest.getDays(),
+                        leaveRequest.getSubmittedAt().toLocalDate()));
+            }
+
+            String text = String.format(
+                "Dear %s,\n\n" +
+                "The following leave requests have been pending for too long and were escalated to you:\n\n" +
+                "%s\n" +
+                "Please review and approve/reject these requests.\n\n" +
+                "Best regards,\n" +
+                "HR Leave Management System",
+                manager.getFirstName(),
+                requests
+            );
+
+            message.setText(text);
+            mailSender.send(message);
+
+            logger.info("Escalation digest of {} requests sent to manager: {}", leaveRequests.size(), manager.getEmail());
+        } catch (Exception e) {
+            logger.error("Failed to send escalation digest to manager: {}", manager.getEmail(), e);
+            meterRegistry.counter("hrleave.notifications.failures", "type", "escalation").increment();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.hrleave.service;
+
+import com.hrleave.entity.OrgClosure;
+import com.hrleave.repository.OrgClosureRepository;
+import com.hrleave.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Maintains the org_closure table: one row per (manager at any depth, report) pair
+@Service
+@Transactional
+public class OrgHierarchyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrgHierarchyService.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long ANCESTOR_FACTOR = 1_000_003L;
+    private static final long DESCENDANT_FACTOR = 8_191L;
+    private static final long CHECKSUM_MODULUS = 2_147_483_647L;
+    private static final String INSERT_SQL =
+            "INSERT INTO org_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)";
+    private static final String LOCK_SQL = "SELECT id FROM org_hierarchy_lock WHERE id = 1 FOR UPDATE";
+    // Row count and an order-independent checksum of the closure, computed the same way by pathsChecksum()
+    private static final String CHECKSUM_SQL = "SELECT COUNT(*), COALESCE(SUM(MOD(ancestor_id * " + ANCESTOR_FACTOR +
+            " + descendant_id * " + DESCENDANT_FACTOR + " + depth, " + CHECKSUM_MODULUS + ")), 0) FROM org_closure";
+
+    @Autowired
+    private OrgClosureRepository orgClosureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rebuilds when the closure differs from users.manager_id in any path, not only in its number of users
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        lock();
+        List<OrgClosure> paths = paths();
+        long[] stored = jdbcTemplate.queryForObject(CHECKSUM_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        long count = stored[0];
+        long checksum = stored[1];
+        long expectedChecksum = pathsChecksum(paths);
+        if (count != paths.size() || checksum != expectedChecksum) {
+            logger.warn("Org closure out of date ({} paths stored with checksum {}, {} expected with checksum {}), rebuilding",
+                    count, checksum, paths.size(), expectedChecksum);
+            replace(paths);
+        }
+    }
+
+    public void rebuild() {
+        lock();
+        replace(paths());
+    }
+
+    // Callers check and then move a user within one transaction, under the hierarchy lock taken here
+    public void validateManager(Long userId, Long managerId) {
+        if (userId == null || managerId == null) {
+            return;
+        }
+        lock();
+        if (managerId.equals(userId) || orgClosureRepository.isAncestor(userId, managerId)) {
+            throw new RuntimeException("Manager assignment would create a cycle in the organisation");
+        }
+    }
+
+    public void onUserCreated(Long userId, Long managerId) {
+        lock();
+        List<OrgClosure> rows = new ArrayList<>();
+        rows.add(new OrgClosure(userId, userId, 0));
+        if (managerId != null) {
+            for (OrgClosure ancestor : orgClosureRepository.findAncestors(managerId)) {
+                rows.add(new OrgClosure(ancestor.getAncestorId(), userId, ancestor.getDepth() + 1));
+            }
+        }
+        insert(rows);
+    }
+
+    // Detaches the user's subtree from its old ancestors and grafts it under the new manager
+    public void onManagerChanged(Long userId, Long oldManagerId, Long newManagerId) {
+        if (Objects.equals(oldManagerId, newManagerId)) {
+            return;
+        }
+        lock();
+
+        List<OrgClosure> subtree = orgClosureRepository.findSubtree(userId);
+        List<Long> descendantIds = subtree.stream().map(OrgClosure::getDescendantId).toList();
+        List<Long> oldAncestorIds = orgClosureRepository.findAncestors(userId).stream()
+                .filter(path -> path.getDepth() > 0)
+                .map(OrgClosure::getAncestorId)
+                .toList();
+
+        if (!oldAncestorIds.isEmpty()) {
+            orgClosureRepository.deletePaths(oldAncestorIds, descendantIds);
+        }
+
+        if (newManagerId != null) {
+            List<OrgClosure> rows = new ArrayList<>();
+            for (OrgClosure ancestor : orgClosureRepository.findAncestors(newManagerId)) {
+                for (OrgClosure descendant : subtree) {
+                    rows.add(new OrgClosure(ancestor.getAncestorId(), descendant.getDescendantId(),
+                            ancestor.getDepth() + 1 + descendant.getDepth()));
+                }
+            }
+            insert(rows);
+        }
+    }
+
+    public void onUserDeleted(Long userId) {
+        lock();
+        orgClosureRepository.deleteByUserId(userId);
+    }
+
+    // Held until the surrounding transaction ends; taking it again in the same transaction is a no-op
+    private void lock() {
+        jdbcTemplate.queryForList(LOCK_SQL);
+    }
+
+    // Every path implied by users.manager_id, a cycle left by older data being cut where it closes
+    private List<OrgClosure> paths() {
+        Map<Long, Long> managerOf = new HashMap<>();
+        for (Object[] link : userRepository.findManagerLinks()) {
+            managerOf.put((Long) link[0], (Long) link[1]);
+        }
+
+        List<OrgClosure> rows = new ArrayList<>();
+        for (Long userId : managerOf.keySet()) {
+            Set<Long> seen = new HashSet<>();
+            int depth = 0;
+            for (Long ancestor = userId; ancestor != null && seen.add(ancestor); ancestor = managerOf.get(ancestor)) {
+                rows.add(new OrgClosure(ancestor, userId, depth++));
+            }
+        }
+        return rows;
+    }
+
+    private void replace(List<OrgClosure> paths) {
+        orgClosureRepository.deleteAllInBatch();
+        insert(paths);
+        logger.info("Org closure rebuilt ({} paths)", paths.size());
+    }
+
+    private static long pathsChecksum(List<OrgClosure> paths) {
+        long checksum = 0;
+        for (OrgClosure path : paths) {
+            checksum += (path.getAncestorId() * ANCESTOR_FACTOR + path.getDescendantId() * DESCENDANT_FACTOR
+                    + path.getDepth()) % CHECKSUM_MODULUS;
+        }
+        return checksum;
+    }
+
+    private void insert(List<OrgClosure> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getAncestorId());
+            ps.setLong(2, row.getDescendantId());
+            ps.setInt(3, row.getDepth());
+        });
+    }
+}
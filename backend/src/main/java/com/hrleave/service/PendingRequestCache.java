@@ -0,0 +1,90 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.LeaveRequestDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Pending requests of each manager's direct reports, dropped after commit of any write that changes the list.
+// Concurrent misses for the same manager share one load. Entries also expire, for writes made on other instances.
+@Service
+public class PendingRequestCache {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leave.pending-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private TransactionTemplate loadTransaction;
+    private Counter hits;
+    private Counter misses;
+
+    private static class Entry {
+        private final CompletableFuture<List<LeaveRequestDto>> snapshot = new CompletableFuture<>();
+        private final long expiresAt;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Loads read the primary: a lagging replica would be cached until the next write or expiry
+        loadTransaction = new TransactionTemplate(transactionManager);
+        hits = Counter.builder("hrleave.pending.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("hrleave.pending.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("hrleave.pending.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public List<LeaveRequestDto> get(Long managerId, Supplier<List<LeaveRequestDto>> loader) {
+        long now = System.nanoTime();
+        Entry created = new Entry(now + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        Entry entry = entries.compute(managerId, (id, current) ->
+                current != null && current.expiresAt - now > 0 ? current : created);
+
+        if (entry != created) {
+            hits.increment();
+        } else {
+            misses.increment();
+            try {
+                entry.snapshot.complete(List.copyOf(loadTransaction.execute(status -> loader.get())));
+            } catch (RuntimeException e) {
+                entries.remove(managerId, entry);
+                entry.snapshot.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return entry.snapshot.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    // A load already in flight still completes for its waiters, but is no longer served afterwards
+    public void invalidateAfterCommit(Long managerId) {
+        if (managerId != null) {
+            AfterCommit.run(() -> entries.remove(managerId));
+        }
+    }
+}
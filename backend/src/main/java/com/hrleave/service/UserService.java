@@ -5,9 +5,11 @@ import com.hrleave.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -23,68 +25,132 @@ public class UserService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private AbsenceCalendarService absenceCalendarService;
+
+    @Autowired
+    private CoverageService coverageService;
+
+    @Autowired
+    private OrgHierarchyService orgHierarchyService;
+
+    @Autowired
+    private PendingRequestCache pendingRequestCache;
+
+    @Autowired
+    private LeaveRequestViewService leaveRequestViewService;
+
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getUsersByRole(User.Role role) {
         return userRepository.findByRole(role);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getUsersByDepartment(String department) {
         return userRepository.findByDepartment(department);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getTeamMembers(Long managerId) {
         return userRepository.findByManagerId(managerId);
     }
 
+    @Transactional(readOnly = true)
+    public List<User> getOrganizationMembers(Long managerId) {
+        return userRepository.findOrganizationMembers(managerId);
+    }
+
+    // Read committed: the org closure read after OrgHierarchyService takes its lock must include the changes committed
+    // while waiting for it, which a repeatable-read snapshot opened by an earlier read would hide
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public User createUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
+        orgHierarchyService.onUserCreated(savedUser.getId(), managerId(savedUser));
         auditService.logAction(null, "CREATE_USER", "User", savedUser.getId(), 
             "Created user: " + savedUser.getEmail());
         return savedUser;
     }
 
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public User updateUser(Long id, User userDetails) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
+        String oldDepartment = user.getDepartment();
+        Long oldManagerId = managerId(user);
+        String oldFirstName = user.getFirstName();
+        String oldLastName = user.getLastName();
+        orgHierarchyService.validateManager(id, managerId(userDetails));
+
         user.setFirstName(userDetails.getFirstName());
         user.setLastName(userDetails.getLastName());
         user.setDepartment(userDetails.getDepartment());
         user.setRole(userDetails.getRole());
         user.setManager(userDetails.getManager());
+        user.setHolidayCalendar(userDetails.getHolidayCalendar());
 
         if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
         }
 
         User updatedUser = userRepository.save(user);
+        absenceCalendarService.updateMember(updatedUser);
+        coverageService.moveMember(id, oldDepartment, updatedUser.getDepartment());
+        orgHierarchyService.onManagerChanged(id, oldManagerId, managerId(updatedUser));
+        // The read model copies the requester's and the reviewer's names
+        boolean renamed = !Objects.equals(oldFirstName, updatedUser.getFirstName())
+                || !Objects.equals(oldLastName, updatedUser.getLastName());
+        if (renamed || !Objects.equals(oldDepartment, updatedUser.getDepartment())
+                || !Objects.equals(oldManagerId, managerId(updatedUser))) {
+            leaveRequestViewService.updateRequester(updatedUser);
+        }
+        if (renamed) {
+            leaveRequestViewService.updateReviewer(updatedUser);
+        }
+        // Pending lists embed the requester's name and follow the manager link
+        pendingRequestCache.invalidateAfterCommit(oldManagerId);
+        pendingRequestCache.invalidateAfterCommit(managerId(updatedUser));
         auditService.logAction(user, "UPDATE_USER", "User", updatedUser.getId(), 
             "Updated user: " + updatedUser.getEmail());
         return updatedUser;
     }
 
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
         auditService.logAction(user, "DELETE_USER", "User", id, 
             "Deleted user: " + user.getEmail());
+        orgHierarchyService.onUserDeleted(id);
+        coverageService.removeMember(id, user.getDepartment());
+        pendingRequestCache.invalidateAfterCommit(managerId(user));
         userRepository.deleteById(id);
+        absenceCalendarService.removeMember(id);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    private Long managerId(User user) {
+        return user.getManager() != null ? user.getManager().getId() : null;
+    }
 }
\ No newline at end of file
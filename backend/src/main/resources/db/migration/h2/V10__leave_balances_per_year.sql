@@ -0,0 +1,11 @@
+-- H2 flavour of mysql/V10__leave_balances_per_year.sql
+
+ALTER TABLE leave_balances ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- H2 would hand the dropped unique index over to the foreign key, unique still, so the key is recreated around it
+ALTER TABLE leave_balances DROP CONSTRAINT fk_leave_balances_user;
+ALTER TABLE leave_balances DROP CONSTRAINT uk_leave_balances_user;
+ALTER TABLE leave_balances ADD CONSTRAINT uk_leave_balances_user_year UNIQUE (user_id, year);
+ALTER TABLE leave_balances ADD CONSTRAINT fk_leave_balances_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+DROP INDEX idx_leave_balances_user_year;
@@ -0,0 +1,8 @@
+-- H2 flavour of mysql/V11__org_hierarchy_lock.sql
+
+CREATE TABLE IF NOT EXISTS org_hierarchy_lock (
+    id TINYINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+MERGE INTO org_hierarchy_lock (id) KEY (id) VALUES (1);
@@ -0,0 +1,3 @@
+-- H2 flavour of mysql/V12__leave_requests_archive_archived_at.sql
+
+CREATE INDEX idx_leave_requests_archive_archived_at ON leave_requests_archive (archived_at);
@@ -0,0 +1,3 @@
+-- H2 flavour of mysql/V13__idempotency_response_body_text.sql
+
+ALTER TABLE idempotency_keys ALTER COLUMN response_body CLOB;
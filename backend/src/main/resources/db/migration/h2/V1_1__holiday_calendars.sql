@@ -0,0 +1,13 @@
+-- H2 flavour of mysql/V1_1__holiday_calendars.sql
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS holiday_calendar VARCHAR(20);
+
+CREATE TABLE IF NOT EXISTS public_holidays (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    calendar_code VARCHAR(20),
+    holiday_date  DATE,
+    name          VARCHAR(100),
+    created_at    TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_public_holidays_calendar_date UNIQUE (calendar_code, holiday_date)
+);
@@ -0,0 +1,3 @@
+-- H2 flavour of mysql/V1_2__leave_requests_overlap_index.sql
+
+CREATE INDEX IF NOT EXISTS idx_leave_requests_user_status_dates ON leave_requests (user_id, status, start_date, end_date);
@@ -0,0 +1,10 @@
+-- H2 flavour of mysql/V1_3__org_closure.sql
+
+CREATE TABLE IF NOT EXISTS org_closure (
+    ancestor_id   BIGINT  NOT NULL,
+    descendant_id BIGINT  NOT NULL,
+    depth         INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_org_closure_descendant ON org_closure (descendant_id, depth);
@@ -0,0 +1,70 @@
+-- H2 flavour of mysql/V1__baseline.sql, used by the local profile
+
+CREATE TABLE users (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email            VARCHAR(255),
+    password         VARCHAR(255),
+    first_name       VARCHAR(255),
+    last_name        VARCHAR(255),
+    role             VARCHAR(20) CHECK (role IN ('EMPLOYEE','MANAGER','HR')),
+    manager_id       BIGINT,
+    department       VARCHAR(255),
+    join_date        DATE,
+    enabled          BOOLEAN NOT NULL,
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_manager FOREIGN KEY (manager_id) REFERENCES users (id)
+);
+
+CREATE TABLE leave_balances (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id        BIGINT,
+    annual_leave   INTEGER,
+    sick_leave     INTEGER,
+    personal_leave INTEGER,
+    used_annual    INTEGER,
+    used_sick      INTEGER,
+    used_personal  INTEGER,
+    year           INTEGER,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_leave_balances_user UNIQUE (user_id),
+    CONSTRAINT fk_leave_balances_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE leave_requests (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id           BIGINT NOT NULL,
+    type              VARCHAR(20) CHECK (type IN ('ANNUAL','SICK','PERSONAL','MATERNITY','EMERGENCY')),
+    start_date        DATE,
+    end_date          DATE,
+    days              INTEGER,
+    reason            VARCHAR(500),
+    status            VARCHAR(20) CHECK (status IN ('PENDING','APPROVED','REJECTED','CANCELLED')),
+    submitted_at      TIMESTAMP(6),
+    reviewed_at       TIMESTAMP(6),
+    reviewed_by       BIGINT,
+    reviewer_comments VARCHAR(500),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_requests_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_requests_reviewer FOREIGN KEY (reviewed_by) REFERENCES users (id)
+);
+
+CREATE TABLE audit_logs (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id     BIGINT,
+    action      VARCHAR(100),
+    entity_type VARCHAR(100),
+    entity_id   BIGINT,
+    details     VARCHAR(1000),
+    ip_address  VARCHAR(45),
+    user_agent  VARCHAR(500),
+    created_at  TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_audit_logs_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
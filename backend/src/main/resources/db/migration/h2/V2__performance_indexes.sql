@@ -0,0 +1,7 @@
+-- H2 flavour of mysql/V2__performance_indexes.sql
+
+CREATE INDEX idx_leave_requests_status_start ON leave_requests (status, start_date);
+CREATE INDEX idx_users_manager ON users (manager_id);
+CREATE INDEX idx_users_department_role ON users (department, role);
+CREATE INDEX idx_leave_balances_user_year ON leave_balances (user_id, year);
+CREATE INDEX idx_audit_logs_created_at ON audit_logs (created_at);
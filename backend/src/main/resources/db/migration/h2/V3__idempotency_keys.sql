@@ -0,0 +1,14 @@
+-- H2 flavour of mysql/V3__idempotency_keys.sql
+
+CREATE TABLE idempotency_keys (
+    user_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(64)  NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status_code     INTEGER,
+    response_body   VARCHAR(4000),
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
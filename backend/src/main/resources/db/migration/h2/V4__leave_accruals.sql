@@ -0,0 +1,13 @@
+-- H2 flavour of mysql/V4__leave_accruals.sql
+
+CREATE TABLE leave_accruals (
+    user_id       BIGINT       NOT NULL,
+    period        DATE         NOT NULL,
+    months        INTEGER      NOT NULL,
+    annual_days   INTEGER      NOT NULL,
+    sick_days     INTEGER      NOT NULL,
+    personal_days INTEGER      NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, period),
+    CONSTRAINT fk_leave_accruals_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
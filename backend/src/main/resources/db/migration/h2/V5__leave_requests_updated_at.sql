@@ -0,0 +1,3 @@
+-- H2 flavour of mysql/V5__leave_requests_updated_at.sql
+
+CREATE INDEX idx_leave_requests_updated_at ON leave_requests (updated_at);
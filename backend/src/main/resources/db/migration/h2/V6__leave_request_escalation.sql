@@ -0,0 +1,10 @@
+-- H2 flavour of mysql/V6__leave_request_escalation.sql
+
+ALTER TABLE leave_requests ADD COLUMN escalated_to BIGINT NULL;
+ALTER TABLE leave_requests ADD COLUMN escalated_at TIMESTAMP(6) NULL;
+ALTER TABLE leave_requests ADD COLUMN escalations INT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_leave_requests_status_submitted ON leave_requests (status, submitted_at);
+CREATE INDEX idx_leave_requests_escalated_to ON leave_requests (escalated_to);
+
+ALTER TABLE leave_requests ADD CONSTRAINT fk_leave_requests_escalated_to FOREIGN KEY (escalated_to) REFERENCES users (id);
@@ -0,0 +1,3 @@
+-- H2 flavour of mysql/V7__leave_request_version.sql
+
+ALTER TABLE leave_requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
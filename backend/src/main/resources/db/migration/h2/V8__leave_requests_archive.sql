@@ -0,0 +1,29 @@
+-- H2 flavour of mysql/V8__leave_requests_archive.sql
+
+CREATE TABLE leave_requests_archive (
+    id                BIGINT NOT NULL,
+    user_id           BIGINT NOT NULL,
+    type              VARCHAR(20) CHECK (type IN ('ANNUAL','SICK','PERSONAL','MATERNITY','EMERGENCY')),
+    start_date        DATE,
+    end_date          DATE,
+    days              INTEGER,
+    reason            VARCHAR(500),
+    status            VARCHAR(20) CHECK (status IN ('PENDING','APPROVED','REJECTED','CANCELLED')),
+    submitted_at      TIMESTAMP(6),
+    reviewed_at       TIMESTAMP(6),
+    reviewed_by       BIGINT,
+    reviewer_comments VARCHAR(500),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    escalated_to      BIGINT NULL,
+    escalated_at      TIMESTAMP(6) NULL,
+    escalations       INT NOT NULL DEFAULT 0,
+    version           BIGINT NOT NULL DEFAULT 0,
+    archived_at       TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_requests_archive_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_requests_archive_reviewer FOREIGN KEY (reviewed_by) REFERENCES users (id)
+);
+
+CREATE INDEX idx_leave_requests_archive_user_dates ON leave_requests_archive (user_id, start_date, end_date);
+CREATE INDEX idx_leave_requests_archive_dates ON leave_requests_archive (start_date);
@@ -0,0 +1,41 @@
+-- H2 flavour of mysql/V9__leave_request_views.sql
+
+CREATE TABLE leave_request_views (
+    id                  BIGINT NOT NULL,
+    user_id             BIGINT NOT NULL,
+    user_first_name     VARCHAR(255),
+    user_last_name      VARCHAR(255),
+    user_email          VARCHAR(255),
+    manager_id          BIGINT NULL,
+    department          VARCHAR(255),
+    type                VARCHAR(20) CHECK (type IN ('ANNUAL','SICK','PERSONAL','MATERNITY','EMERGENCY')),
+    start_date          DATE,
+    end_date            DATE,
+    days                INTEGER,
+    reason              VARCHAR(500),
+    status              VARCHAR(20) CHECK (status IN ('PENDING','APPROVED','REJECTED','CANCELLED')),
+    submitted_at        TIMESTAMP(6),
+    reviewed_at         TIMESTAMP(6),
+    reviewer_comments   VARCHAR(500),
+    reviewed_by         BIGINT NULL,
+    reviewer_first_name VARCHAR(255),
+    reviewer_last_name  VARCHAR(255),
+    escalated_to        BIGINT NULL,
+    escalated_at        TIMESTAMP(6) NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_leave_request_views_user_dates ON leave_request_views (user_id, start_date, end_date);
+CREATE INDEX idx_leave_request_views_manager_status ON leave_request_views (manager_id, status);
+CREATE INDEX idx_leave_request_views_escalated_status ON leave_request_views (escalated_to, status);
+CREATE INDEX idx_leave_request_views_reviewer ON leave_request_views (reviewed_by);
+
+INSERT INTO leave_request_views (id, user_id, user_first_name, user_last_name, user_email, manager_id, department,
+        type, start_date, end_date, days, reason, status, submitted_at, reviewed_at, reviewer_comments,
+        reviewed_by, reviewer_first_name, reviewer_last_name, escalated_to, escalated_at)
+SELECT lr.id, u.id, u.first_name, u.last_name, u.email, u.manager_id, u.department,
+       lr.type, lr.start_date, lr.end_date, lr.days, lr.reason, lr.status, lr.submitted_at, lr.reviewed_at,
+       lr.reviewer_comments, lr.reviewed_by, r.first_name, r.last_name, lr.escalated_to, lr.escalated_at
+FROM leave_requests lr
+JOIN users u ON u.id = lr.user_id
+LEFT JOIN users r ON r.id = lr.reviewed_by;
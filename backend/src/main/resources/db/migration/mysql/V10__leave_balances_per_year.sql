@@ -0,0 +1,19 @@
+-- Optimistic locking of leave balances (LeaveBalance.version); instant, existing rows start at 0
+ALTER TABLE leave_balances ADD COLUMN version BIGINT NOT NULL DEFAULT 0, ALGORITHM = INSTANT;
+
+-- One balance per user and year instead of one per user. The new key is built first so that fk_leave_balances_user
+-- always keeps an index on user_id, then the single-column unique key goes: it is uk_leave_balances_user on
+-- databases created by V1 and a generated UK_... name on those baselined from ddl-auto: update.
+ALTER TABLE leave_balances ADD UNIQUE INDEX uk_leave_balances_user_year (user_id, year), ALGORITHM = INPLACE, LOCK = NONE;
+
+SET @uk = (SELECT index_name FROM information_schema.statistics
+           WHERE table_schema = DATABASE() AND table_name = 'leave_balances' AND non_unique = 0 AND index_name <> 'PRIMARY'
+           GROUP BY index_name HAVING COUNT(*) = 1 AND MAX(column_name) = 'user_id' LIMIT 1);
+SET @ddl = IF(@uk IS NULL, 'DO 0',
+              CONCAT('ALTER TABLE leave_balances DROP INDEX `', @uk, '`, ALGORITHM = INPLACE, LOCK = NONE'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Same columns as the new unique key
+ALTER TABLE leave_balances DROP INDEX idx_leave_balances_user_year, ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,8 @@
+-- Single row locked FOR UPDATE by OrgHierarchyService around every manager change and closure rebuild, so that two
+-- concurrent reassignments cannot each pass the cycle check against a closure the other is about to change
+CREATE TABLE IF NOT EXISTS org_hierarchy_lock (
+    id TINYINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT IGNORE INTO org_hierarchy_lock (id) VALUES (1);
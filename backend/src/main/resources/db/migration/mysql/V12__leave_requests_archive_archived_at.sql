@@ -0,0 +1,2 @@
+-- Search index catch-ups drop the requests archived since their previous run (LeaveSearchService)
+ALTER TABLE leave_requests_archive ADD INDEX idx_leave_requests_archive_archived_at (archived_at), ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,3 @@
+-- Responses of any size are stored (IdempotencyService never releases a key whose operation committed). Changing
+-- the column type copies the table, which only holds keys younger than app.idempotency.ttl-hours.
+ALTER TABLE idempotency_keys MODIFY response_body LONGTEXT NULL;
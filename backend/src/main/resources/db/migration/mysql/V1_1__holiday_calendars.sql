@@ -0,0 +1,19 @@
+-- Holiday calendars (HolidayCalendarService): users.holiday_calendar and public_holidays. Databases kept up to date
+-- by ddl-auto: update on a release between these changes and the move to migrations may already have them, hence
+-- the existence checks.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE()
+                   AND table_name = 'users' AND column_name = 'holiday_calendar') = 0,
+              'ALTER TABLE users ADD COLUMN holiday_calendar VARCHAR(20), ALGORITHM = INSTANT', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+CREATE TABLE IF NOT EXISTS public_holidays (
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    calendar_code VARCHAR(20),
+    holiday_date  DATE,
+    name          VARCHAR(100),
+    created_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_public_holidays_calendar_date UNIQUE (calendar_code, holiday_date)
+) ENGINE = InnoDB;
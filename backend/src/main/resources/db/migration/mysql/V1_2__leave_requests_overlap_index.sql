@@ -0,0 +1,9 @@
+-- Overlap check of LeaveRequestRepository.existsOverlapping, also serving leave_requests(user_id, status).
+-- Built online; skipped where ddl-auto: update already created it from the entity's @Index.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+                   AND table_name = 'leave_requests' AND index_name = 'idx_leave_requests_user_status_dates') = 0,
+              'ALTER TABLE leave_requests ADD INDEX idx_leave_requests_user_status_dates (user_id, status, start_date, end_date), ALGORITHM = INPLACE, LOCK = NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,8 @@
+-- Org hierarchy closure table (OrgHierarchyService), filled from users.manager_id at startup when stale
+CREATE TABLE IF NOT EXISTS org_closure (
+    ancestor_id   BIGINT  NOT NULL,
+    descendant_id BIGINT  NOT NULL,
+    depth         INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_org_closure_descendant (descendant_id, depth)
+) ENGINE = InnoDB;
@@ -0,0 +1,17 @@
+-- Secondary indexes for the hottest predicates, built online (InnoDB in-place, no table lock).
+-- leave_requests(user_id, status) is served by the prefix of idx_leave_requests_user_status_dates.
+
+-- findByStatus, countByStatus and the dashboard/analytics scans by status and date
+ALTER TABLE leave_requests ADD INDEX idx_leave_requests_status_start (status, start_date), ALGORITHM = INPLACE, LOCK = NONE;
+
+-- findByManagerId and the user.manager join behind the team endpoints
+ALTER TABLE users ADD INDEX idx_users_manager (manager_id), ALGORITHM = INPLACE, LOCK = NONE;
+
+-- findByDepartment and findByRoleAndDepartment
+ALTER TABLE users ADD INDEX idx_users_department_role (department, role), ALGORITHM = INPLACE, LOCK = NONE;
+
+-- findByUserIdAndYear, called on every balance read
+ALTER TABLE leave_balances ADD INDEX idx_leave_balances_user_year (user_id, year), ALGORITHM = INPLACE, LOCK = NONE;
+
+-- AuditLogRepository.findByDateRange
+ALTER TABLE audit_logs ADD INDEX idx_audit_logs_created_at (created_at), ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,13 @@
+-- Stored outcomes of requests sent with an Idempotency-Key, purged once expires_at has passed
+
+CREATE TABLE idempotency_keys (
+    user_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(64)  NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status_code     INTEGER,
+    response_body   VARCHAR(4000),
+    created_at      DATETIME(6)  NOT NULL,
+    expires_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key),
+    INDEX idx_idempotency_keys_expires (expires_at)
+) ENGINE = InnoDB;
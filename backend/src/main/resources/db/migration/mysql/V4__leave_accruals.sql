@@ -0,0 +1,14 @@
+-- One row per user and accrual run period; the primary key makes a rerun of the same period a no-op.
+-- months > 1 when the run caught up on periods that were missed (first accrual of the year, downtime).
+
+CREATE TABLE leave_accruals (
+    user_id       BIGINT      NOT NULL,
+    period        DATE        NOT NULL,
+    months        INTEGER     NOT NULL,
+    annual_days   INTEGER     NOT NULL,
+    sick_days     INTEGER     NOT NULL,
+    personal_days INTEGER     NOT NULL,
+    created_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id, period),
+    CONSTRAINT fk_leave_accruals_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,2 @@
+-- Lets the search index catch up on recently written leave requests without scanning the table
+ALTER TABLE leave_requests ADD INDEX idx_leave_requests_updated_at (updated_at), ALGORITHM = INPLACE, LOCK = NONE;
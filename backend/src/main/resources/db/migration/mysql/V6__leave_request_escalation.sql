@@ -0,0 +1,20 @@
+-- Escalation of requests left pending too long (LeaveEscalationService)
+
+-- Instant: metadata only, no table rebuild
+ALTER TABLE leave_requests
+    ADD COLUMN escalated_to BIGINT NULL,
+    ADD COLUMN escalated_at DATETIME(6) NULL,
+    ADD COLUMN escalations INT NOT NULL DEFAULT 0,
+    ALGORITHM = INSTANT;
+
+-- Keyset scan of old pending requests, and the escalated part of the team pending list
+ALTER TABLE leave_requests
+    ADD INDEX idx_leave_requests_status_submitted (status, submitted_at),
+    ADD INDEX idx_leave_requests_escalated_to (escalated_to),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+-- The column is all NULL, so the constraint is added in place without validating existing rows
+SET foreign_key_checks = 0;
+ALTER TABLE leave_requests ADD CONSTRAINT fk_leave_requests_escalated_to FOREIGN KEY (escalated_to) REFERENCES users (id),
+    ALGORITHM = INPLACE, LOCK = NONE;
+SET foreign_key_checks = 1;
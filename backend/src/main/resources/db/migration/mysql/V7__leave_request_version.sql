@@ -0,0 +1,2 @@
+-- Optimistic locking of leave requests (LeaveRequest.version); instant, existing rows start at 0
+ALTER TABLE leave_requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0, ALGORITHM = INSTANT;
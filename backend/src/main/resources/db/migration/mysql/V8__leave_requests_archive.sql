@@ -0,0 +1,28 @@
+-- Closed requests moved out of leave_requests by LeaveArchiveService: same columns, plus when they were moved.
+-- Rarely read and never updated, so the pages are stored compressed.
+CREATE TABLE leave_requests_archive (
+    id                BIGINT NOT NULL,
+    user_id           BIGINT NOT NULL,
+    type              ENUM ('ANNUAL','SICK','PERSONAL','MATERNITY','EMERGENCY'),
+    start_date        DATE,
+    end_date          DATE,
+    days              INTEGER,
+    reason            VARCHAR(500),
+    status            ENUM ('PENDING','APPROVED','REJECTED','CANCELLED'),
+    submitted_at      DATETIME(6),
+    reviewed_at       DATETIME(6),
+    reviewed_by       BIGINT,
+    reviewer_comments VARCHAR(500),
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    escalated_to      BIGINT NULL,
+    escalated_at      DATETIME(6) NULL,
+    escalations       INT NOT NULL DEFAULT 0,
+    version           BIGINT NOT NULL DEFAULT 0,
+    archived_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_leave_requests_archive_user_dates (user_id, start_date, end_date),
+    INDEX idx_leave_requests_archive_dates (start_date),
+    CONSTRAINT fk_leave_requests_archive_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_requests_archive_reviewer FOREIGN KEY (reviewed_by) REFERENCES users (id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED;
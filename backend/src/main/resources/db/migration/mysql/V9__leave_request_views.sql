@@ -0,0 +1,41 @@
+-- Denormalized read model of leave_requests maintained by LeaveRequestViewService: one row per request holding
+-- every LeaveRequestDto field, plus the requester's manager and department, so that list endpoints read a single
+-- table. Derived data only, hence no foreign keys; existing requests are copied in here.
+CREATE TABLE leave_request_views (
+    id                  BIGINT NOT NULL,
+    user_id             BIGINT NOT NULL,
+    user_first_name     VARCHAR(255),
+    user_last_name      VARCHAR(255),
+    user_email          VARCHAR(255),
+    manager_id          BIGINT NULL,
+    department          VARCHAR(255),
+    type                ENUM ('ANNUAL','SICK','PERSONAL','MATERNITY','EMERGENCY'),
+    start_date          DATE,
+    end_date            DATE,
+    days                INTEGER,
+    reason              VARCHAR(500),
+    status              ENUM ('PENDING','APPROVED','REJECTED','CANCELLED'),
+    submitted_at        DATETIME(6),
+    reviewed_at         DATETIME(6),
+    reviewer_comments   VARCHAR(500),
+    reviewed_by         BIGINT NULL,
+    reviewer_first_name VARCHAR(255),
+    reviewer_last_name  VARCHAR(255),
+    escalated_to        BIGINT NULL,
+    escalated_at        DATETIME(6) NULL,
+    PRIMARY KEY (id),
+    INDEX idx_leave_request_views_user_dates (user_id, start_date, end_date),
+    INDEX idx_leave_request_views_manager_status (manager_id, status),
+    INDEX idx_leave_request_views_escalated_status (escalated_to, status),
+    INDEX idx_leave_request_views_reviewer (reviewed_by)
+) ENGINE = InnoDB;
+
+INSERT INTO leave_request_views (id, user_id, user_first_name, user_last_name, user_email, manager_id, department,
+        type, start_date, end_date, days, reason, status, submitted_at, reviewed_at, reviewer_comments,
+        reviewed_by, reviewer_first_name, reviewer_last_name, escalated_to, escalated_at)
+SELECT lr.id, u.id, u.first_name, u.last_name, u.email, u.manager_id, u.department,
+       lr.type, lr.start_date, lr.end_date, lr.days, lr.reason, lr.status, lr.submitted_at, lr.reviewed_at,
+       lr.reviewer_comments, lr.reviewed_by, r.first_name, r.last_name, lr.escalated_to, lr.escalated_at
+FROM leave_requests lr
+JOIN users u ON u.id = lr.user_id
+LEFT JOIN users r ON r.id = lr.reviewed_by;
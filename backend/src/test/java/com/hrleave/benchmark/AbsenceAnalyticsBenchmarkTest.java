@@ -0,0 +1,187 @@
+package com.hrleave.benchmark;
+
+import com.hrleave.dto.AbsenceReportDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.repository.LeaveRequestRepository;
+import com.hrleave.service.AbsenceAnalyticsService;
+import com.hrleave.service.HolidayCalendarService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Absence report over a generated company: 50 000 users in 20 departments and 5M leave requests over ten years,
+// 80% of them approved. Compares AbsenceAnalyticsService (columnar copy, fork-join over department partitions) with a
+// single-threaded aggregation into boxed maps over the same rows, and checks both give the same total.
+// Opt-in and slow; the H2 file database under target/benchmark keeps the rows off the heap (about 6 GB, delete it after):
+//   mvn test -Dtest=AbsenceAnalyticsBenchmarkTest -Dbenchmark=true [-Dbenchmark.requests=5000000] [-DargLine=-Xmx3g]
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/analytics-${random.uuid};MODE=MySQL;NON_KEYWORDS=YEAR,VALUE",
+        "leave.read-model.rebuild-on-startup=false"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class AbsenceAnalyticsBenchmarkTest {
+
+    private static final int USERS = 50_000;
+    private static final int DEPARTMENTS = 20;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+    private static final int RUNS = 3;
+
+    @Autowired
+    private AbsenceAnalyticsService absenceAnalyticsService;
+
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${leave.holidays.default-calendar:DEFAULT}")
+    private String calendarCode;
+
+    @Test
+    void absenceReportOverFiveMillionRequests() {
+        int requests = Integer.getInteger("benchmark.requests", 5_000_000);
+        long started = System.nanoTime();
+        generate(requests);
+        System.out.printf("Generated %d users and %d leave requests in %d ms%n", USERS, requests, millisSince(started));
+
+        long parallelTotal = 0;
+        long boxedTotal = 0;
+        long[] parallelMs = new long[RUNS + 1];
+        long[] boxedMs = new long[RUNS + 1];
+        // Run 0 warms up
+        for (int run = 0; run <= RUNS; run++) {
+            started = System.nanoTime();
+            parallelTotal = total(absenceAnalyticsService.getAbsenceReport(FIRST_DAY, LAST_DAY));
+            parallelMs[run] = millisSince(started);
+
+            started = System.nanoTime();
+            boxedTotal = boxedAggregation();
+            boxedMs[run] = millisSince(started);
+        }
+
+        System.out.printf("Fork-join, primitive columns: %s ms (%d working days of absence)%n",
+                runs(parallelMs), parallelTotal);
+        System.out.printf("One thread, boxed maps:       %s ms (%d working days of absence)%n",
+                runs(boxedMs), boxedTotal);
+        System.out.printf("Processors: %d, max heap: %d MB%n", Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory() >> 20);
+        assertThat(parallelTotal).isPositive().isEqualTo(boxedTotal);
+    }
+
+    private void generate(int requests) {
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, role, department, join_date, enabled) " +
+                "SELECT 'bench' || X || '@bench.local', 'x', 'Bench', 'User' || X, 'EMPLOYEE', " +
+                "'Department ' || MOD(X, " + DEPARTMENTS + "), DATE '2010-01-01', TRUE FROM SYSTEM_RANGE(1, " + USERS + ")");
+        Long firstUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE 'bench%'", Long.class);
+
+        // 1 to 5 days starting on any day of the ten years; types and statuses spread by residues of the row number
+        int span = (int) (LAST_DAY.toEpochDay() - FIRST_DAY.toEpochDay());
+        int chunk = 500_000;
+        for (int from = 1; from <= requests; from += chunk) {
+            int to = Math.min(requests, from + chunk - 1);
+            jdbcTemplate.update("INSERT INTO leave_requests (user_id, type, start_date, end_date, days, status, submitted_at) " +
+                    "SELECT " + firstUserId + " + MOD(X, " + USERS + "), " +
+                    "CASE MOD(X, 5) WHEN 0 THEN 'ANNUAL' WHEN 1 THEN 'SICK' WHEN 2 THEN 'PERSONAL' " +
+                    "WHEN 3 THEN 'ANNUAL' ELSE 'EMERGENCY' END, " +
+                    "DATEADD(DAY, MOD(X * 7919, " + span + "), DATE '" + FIRST_DAY + "'), " +
+                    "DATEADD(DAY, MOD(X * 7919, " + span + ") + MOD(X, 5), DATE '" + FIRST_DAY + "'), " +
+                    "MOD(X, 5) + 1, " +
+                    "CASE WHEN MOD(X, 10) < 8 THEN 'APPROVED' WHEN MOD(X, 10) = 8 THEN 'REJECTED' ELSE 'CANCELLED' END, " +
+                    "CURRENT_TIMESTAMP FROM SYSTEM_RANGE(" + from + ", " + to + ")");
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // What the report did before: every approved absence walked day by day on one thread into nested boxed maps
+    private long boxedAggregation() {
+        Set<LocalDate> workingDays = new HashSet<>();
+        for (LocalDate day = FIRST_DAY; !day.isAfter(LAST_DAY); day = day.plusDays(1)) {
+            if (holidayCalendarService.countWorkingDays(calendarCode, day, day) == 1) {
+                workingDays.add(day);
+            }
+        }
+
+        Map<String, Map<YearMonth, Map<LeaveRequest.LeaveType, Long>>> days = new HashMap<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = leaveRequestRepository.streamAbsences(LeaveRequest.Status.APPROVED,
+                    FIRST_DAY, LAST_DAY)) {
+                rows.forEach(row -> {
+                    LocalDate start = ((LocalDate) row[2]).isBefore(FIRST_DAY) ? FIRST_DAY : (LocalDate) row[2];
+                    LocalDate end = ((LocalDate) row[3]).isAfter(LAST_DAY) ? LAST_DAY : (LocalDate) row[3];
+                    for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                        if (workingDays.contains(day)) {
+                            days.computeIfAbsent((String) row[0], d -> new HashMap<>())
+                                    .computeIfAbsent(YearMonth.from(day), m -> new HashMap<>())
+                                    .merge((LeaveRequest.LeaveType) row[1], 1L, Long::sum);
+                        }
+                    }
+                });
+            }
+        });
+
+        long total = 0;
+        for (Map<YearMonth, Map<LeaveRequest.LeaveType, Long>> months : days.values()) {
+            for (Map<LeaveRequest.LeaveType, Long> types : months.values()) {
+                for (long count : types.values()) {
+                    total += count;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long total(AbsenceReportDto report) {
+        long total = 0;
+        for (long[][] months : report.getAbsenceDays()) {
+            for (long[] types : months) {
+                for (long days : types) {
+                    total += days;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static String runs(long[] millis) {
+        StringBuilder text = new StringBuilder("warm-up " + millis[0] + ", runs");
+        for (int run = 1; run < millis.length; run++) {
+            text.append(' ').append(millis[run]);
+        }
+        return text.toString();
+    }
+
+    private static long millisSince(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -0,0 +1,180 @@
+package com.hrleave.benchmark;
+
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.repository.LeaveRequestRepository;
+import com.hrleave.repository.UserRepository;
+import com.hrleave.service.OrgHierarchyService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Skip-level queries on a 20 000-employee company eight levels deep (every manager has four reports, the last level
+// is partial), with two leave requests per employee. Times the closure rebuild and a subtree move, then compares the
+// org_closure semi-joins with the level-by-level walk over the direct manager link they replace, for a manager at
+// the top, one level below and three levels below, checking both return the same users and requests.
+// Opt-in:
+//   mvn test -Dtest=OrgHierarchyBenchmarkTest -Dbenchmark=true
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "leave.read-model.rebuild-on-startup=false")
+@ActiveProfiles("test")
+@DirtiesContext
+class OrgHierarchyBenchmarkTest {
+
+    private static final int USERS = 20_000;
+    private static final int REPORTS = 4;
+    private static final int RUNS = 3;
+
+    @Autowired
+    private OrgHierarchyService orgHierarchyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @Test
+    void skipLevelQueriesOnTwentyThousandEmployees() {
+        transaction = new TransactionTemplate(transactionManager);
+        long started = System.nanoTime();
+        long rootId = generate();
+        System.out.printf("Generated %d users and %d leave requests in %d ms%n", USERS, USERS * 2, millisSince(started));
+        assertThat(depth(rootId)).isEqualTo(7);
+
+        started = System.nanoTime();
+        orgHierarchyService.rebuild();
+        System.out.printf("Closure rebuild: %d ms, %d paths%n", millisSince(started),
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM org_closure", Long.class));
+
+        // Heap numbering: user n reports to user (n - 1) / 4, so rootId + 1 is on the first level under the root
+        // and rootId + 21 on the third
+        for (long managerId : new long[]{rootId, rootId + 1, rootId + 21}) {
+            compare(managerId);
+        }
+
+        // Moves the subtree of rootId + 5, on the second level, from rootId + 1 to rootId + 2
+        long moved = rootId + 5;
+        started = System.nanoTime();
+        transaction.executeWithoutResult(status -> {
+            orgHierarchyService.validateManager(moved, rootId + 2);
+            orgHierarchyService.onManagerChanged(moved, rootId + 1, rootId + 2);
+        });
+        System.out.printf("Subtree move: %d ms%n", millisSince(started));
+        assertThat(jdbcTemplate.queryForObject("SELECT depth FROM org_closure WHERE ancestor_id = ? AND descendant_id = ?",
+                Integer.class, rootId + 2, moved)).isEqualTo(1);
+    }
+
+    private void compare(long managerId) {
+        Set<Long> closureUsers = new HashSet<>();
+        Set<Long> closureRequests = new HashSet<>();
+        long[] closureMs = time(() -> {
+            closureUsers.clear();
+            closureRequests.clear();
+            userRepository.findOrganizationMembers(managerId).forEach(user -> closureUsers.add(user.getId()));
+            leaveRequestRepository.findByOrganization(managerId).forEach(request -> closureRequests.add(request.getId()));
+            return null;
+        });
+
+        Set<Long> walkUsers = new HashSet<>();
+        Set<Long> walkRequests = new HashSet<>();
+        long[] walkMs = time(() -> {
+            walkUsers.clear();
+            walkRequests.clear();
+            Deque<Long> managers = new ArrayDeque<>(List.of(managerId));
+            while (!managers.isEmpty()) {
+                Long manager = managers.poll();
+                for (User report : userRepository.findByManagerId(manager)) {
+                    walkUsers.add(report.getId());
+                    managers.add(report.getId());
+                }
+                for (LeaveRequest request : leaveRequestRepository.findByManagerId(manager)) {
+                    walkRequests.add(request.getId());
+                }
+            }
+            return null;
+        });
+
+        System.out.printf("Manager %d, %d users and %d requests below:%n", managerId, closureUsers.size(),
+                closureRequests.size());
+        System.out.printf("  closure, 2 queries:          %s ms%n", runs(closureMs));
+        System.out.printf("  level walk, 2 per manager:   %s ms%n", runs(walkMs));
+        assertThat(closureUsers).isNotEmpty().isEqualTo(walkUsers);
+        assertThat(closureRequests).isEqualTo(walkRequests);
+    }
+
+    // Fresh read-only persistence context for every run, so that no query flushes the entities already loaded;
+    // run 0 warms up
+    private long[] time(Supplier<Void> query) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long[] millis = new long[RUNS + 1];
+        for (int run = 0; run <= RUNS; run++) {
+            long started = System.nanoTime();
+            readOnly.execute(status -> query.get());
+            millis[run] = millisSince(started);
+        }
+        return millis;
+    }
+
+    private long generate() {
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, role, department, join_date, enabled) " +
+                "SELECT 'org' || X || '@bench.local', 'x', 'Org', 'User' || X, " +
+                "CASE WHEN X * " + REPORTS + " + 1 < " + USERS + " THEN 'MANAGER' ELSE 'EMPLOYEE' END, " +
+                "'Department ' || MOD(X, 20), DATE '2010-01-01', TRUE FROM SYSTEM_RANGE(0, " + (USERS - 1) + ")");
+        Long rootId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE 'org%'", Long.class);
+        jdbcTemplate.update("UPDATE users SET manager_id = ? + (id - ? - 1) / " + REPORTS +
+                " WHERE email LIKE 'org%' AND id > ?", rootId, rootId, rootId);
+        jdbcTemplate.update("INSERT INTO leave_requests (user_id, type, start_date, end_date, days, status, submitted_at) " +
+                "SELECT u.id, 'ANNUAL', DATEADD(DAY, MOD(u.id, 300) + 30 * r.X, DATE '2025-01-01'), " +
+                "DATEADD(DAY, MOD(u.id, 300) + 30 * r.X + 1, DATE '2025-01-01'), 2, " +
+                "CASE r.X WHEN 0 THEN 'APPROVED' ELSE 'PENDING' END, CURRENT_TIMESTAMP " +
+                "FROM users u CROSS JOIN SYSTEM_RANGE(0, 1) r WHERE u.email LIKE 'org%'");
+        jdbcTemplate.execute("ANALYZE");
+        return rootId;
+    }
+
+    private int depth(long rootId) {
+        return jdbcTemplate.queryForObject("WITH RECURSIVE chain(id, depth) AS (" +
+                "SELECT id, 0 FROM users WHERE id = ? UNION ALL " +
+                "SELECT u.id, c.depth + 1 FROM users u JOIN chain c ON u.manager_id = c.id) " +
+                "SELECT MAX(depth) FROM chain", Integer.class, rootId);
+    }
+
+    private static String runs(long[] millis) {
+        StringBuilder text = new StringBuilder("warm-up " + millis[0] + ", runs");
+        for (int run = 1; run < millis.length; run++) {
+            text.append(' ').append(millis[run]);
+        }
+        return text.toString();
+    }
+
+    private static long millisSince(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -0,0 +1,136 @@
+package com.hrleave.benchmark;
+
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.repository.LeaveRequestRepository;
+import com.hrleave.support.QueryPlans;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hrleave.support.QueryPlans.indexConditions;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Overlap check of createLeaveRequest/updateLeaveRequest over a generated table: 20 000 users with 100 requests each
+// over ten years by default. Times existsOverlapping through idx_leave_requests_user_status_dates, checked on its
+// EXPLAIN plan, against the same condition forced to a table scan on a few samples, which must give the same answers.
+// Opt-in and slow; the H2 file database under target/benchmark keeps the rows off the heap (about 5 GB, delete it after):
+//   mvn test -Dtest=OverlapCheckBenchmarkTest -Dbenchmark=true [-Dbenchmark.requests=2000000]
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/overlap-${random.uuid};MODE=MySQL;NON_KEYWORDS=YEAR,VALUE",
+        "leave.read-model.rebuild-on-startup=false"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class OverlapCheckBenchmarkTest {
+
+    private static final int USERS = 20_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final int SPAN_DAYS = 3650;
+    private static final int CHECKS = 20_000;
+    private static final int SCAN_CHECKS = 10;
+    private static final List<LeaveRequest.Status> ACTIVE_STATUSES =
+            List.of(LeaveRequest.Status.PENDING, LeaveRequest.Status.APPROVED);
+    private static final String SCAN_SQL = "SELECT COUNT(*) > 0 FROM leave_requests USE INDEX () " +
+            "WHERE user_id = ? AND status IN ('PENDING', 'APPROVED') AND start_date <= ? AND end_date >= ?";
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long firstUserId;
+
+    @Test
+    void overlapCheckOverMillionsOfRequests() {
+        int requests = Integer.getInteger("benchmark.requests", 2_000_000);
+        long started = System.nanoTime();
+        generate(requests);
+        System.out.printf("Generated %d users and %d leave requests in %d ms%n", USERS, requests, millisSince(started));
+
+        String plan = new QueryPlans(jdbcTemplate, transactionManager).of(() -> check(0));
+        assertThat(indexConditions(plan, "IDX_LEAVE_REQUESTS_USER_STATUS_DATES"))
+                .contains("USER_ID = ?").contains("STATUS IN(");
+
+        // Run 0 warms up
+        long[] nanos = new long[CHECKS];
+        int overlaps = 0;
+        for (int run = 0; run <= 1; run++) {
+            overlaps = 0;
+            for (int i = 0; i < CHECKS; i++) {
+                long checkStarted = System.nanoTime();
+                overlaps += check(i) ? 1 : 0;
+                nanos[i] = System.nanoTime() - checkStarted;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("Indexed check: %d checks (%d overlapping) in %d ms, p50 %d us, p99 %d us, max %d us%n",
+                CHECKS, overlaps, Arrays.stream(nanos).sum() / 1_000_000, nanos[CHECKS / 2] / 1_000,
+                nanos[CHECKS * 99 / 100] / 1_000, nanos[CHECKS - 1] / 1_000);
+
+        long scanStarted = System.nanoTime();
+        for (int i = 0; i < SCAN_CHECKS; i++) {
+            LocalDate[] range = range(i);
+            Boolean scanned = jdbcTemplate.queryForObject(SCAN_SQL, Boolean.class, userId(i), range[1], range[0]);
+            assertThat(scanned).as("check %d", i).isEqualTo(check(i));
+        }
+        System.out.printf("Table scan:    %d checks in %d ms, %d ms per check%n", SCAN_CHECKS,
+                millisSince(scanStarted), millisSince(scanStarted) / SCAN_CHECKS);
+        assertThat(overlaps).isPositive().isLessThan(CHECKS);
+    }
+
+    private boolean check(int i) {
+        LocalDate[] range = range(i);
+        return leaveRequestRepository.existsOverlapping(userId(i), ACTIVE_STATUSES, range[0], range[1], null);
+    }
+
+    // Users and one-week ranges spread by residues of the check number
+    private long userId(int i) {
+        return firstUserId + (i * 7_919L) % USERS;
+    }
+
+    private static LocalDate[] range(int i) {
+        LocalDate start = FIRST_DAY.plusDays((i * 104_729L) % SPAN_DAYS);
+        return new LocalDate[]{start, start.plusDays(6)};
+    }
+
+    private void generate(int requests) {
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, role, department, join_date, enabled) " +
+                "SELECT 'overlap' || X || '@bench.local', 'x', 'Bench', 'User' || X, 'EMPLOYEE', " +
+                "'Department ' || MOD(X, 20), DATE '2010-01-01', TRUE FROM SYSTEM_RANGE(1, " + USERS + ")");
+        firstUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE 'overlap%'", Long.class);
+
+        // 1 to 5 days starting on any day of the ten years; statuses spread by residues of the row number
+        int chunk = 500_000;
+        for (int from = 1; from <= requests; from += chunk) {
+            int to = Math.min(requests, from + chunk - 1);
+            jdbcTemplate.update("INSERT INTO leave_requests (user_id, type, start_date, end_date, days, status, submitted_at) " +
+                    "SELECT " + firstUserId + " + MOD(X, " + USERS + "), 'ANNUAL', " +
+                    "DATEADD(DAY, MOD(X * 7919, " + SPAN_DAYS + "), DATE '" + FIRST_DAY + "'), " +
+                    "DATEADD(DAY, MOD(X * 7919, " + SPAN_DAYS + ") + MOD(X, 5), DATE '" + FIRST_DAY + "'), " +
+                    "MOD(X, 5) + 1, " +
+                    "CASE MOD(X, 4) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'APPROVED' WHEN 2 THEN 'REJECTED' " +
+                    "ELSE 'CANCELLED' END, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(" + from + ", " + to + ")");
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static long millisSince(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
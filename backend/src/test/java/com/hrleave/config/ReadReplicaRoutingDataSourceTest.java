@@ -0,0 +1,116 @@
+package com.hrleave.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private final String primaryName = "primary_" + UUID.randomUUID().toString().replace("-", "");
+    private final String replicaName = "replica_" + UUID.randomUUID().toString().replace("-", "");
+
+    private ReplicaLagGuard lagGuard;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readTransaction;
+
+    @BeforeEach
+    void setUp() {
+        lagGuard = new ReplicaLagGuard(60_000, 2);
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(lagGuard);
+        DriverManagerDataSource primary = h2(primaryName);
+        routing.setTargetDataSources(Map.of(
+                ReadReplicaRoutingDataSource.Route.PRIMARY, primary,
+                ReadReplicaRoutingDataSource.Route.REPLICA, h2(replicaName)));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+
+        new JdbcTemplate(primary).execute("CREATE TABLE notes (id INT)");
+        signIn("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(readDatabase()).isEqualToIgnoringCase(replicaName);
+        assertThat(writeDatabase()).isEqualToIgnoringCase(primaryName);
+    }
+
+    @Test
+    void committedWriteKeepsTheWritersReadsOnThePrimary() {
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO notes VALUES (1)"));
+
+        assertThat(readDatabase()).isEqualToIgnoringCase(primaryName);
+        signIn("bob");
+        assertThat(readDatabase()).isEqualToIgnoringCase(replicaName);
+    }
+
+    @Test
+    void transactionsThatOnlyReadOrRollBackRecordNoWrite() {
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.queryForList("SELECT id FROM notes"));
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO notes VALUES (1)");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readDatabase()).isEqualToIgnoringCase(replicaName);
+        assertThat(lagGuard.trackedUsers()).isZero();
+    }
+
+    @Test
+    void writersBeyondTheLimitSendEveryReadToThePrimary() {
+        for (String user : List.of("u1", "u2", "u3")) {
+            signIn(user);
+            writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO notes VALUES (1)"));
+        }
+
+        assertThat(lagGuard.trackedUsers()).isEqualTo(2);
+        signIn("reader");
+        assertThat(readDatabase()).isEqualToIgnoringCase(primaryName);
+    }
+
+    private String readDatabase() {
+        return readTransaction.execute(status -> database());
+    }
+
+    private String writeDatabase() {
+        return writeTransaction.execute(status -> database());
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,73 @@
+package com.hrleave.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrleave.dto.LeaveRequestDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.repository.UserRepository;
+import com.hrleave.service.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A request refused by the service rolled back, so its idempotency key is released instead of replaying the 400
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotentLeaveRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void refusedCreateReleasesTheKey() throws Exception {
+        User employee = userRepository.save(new User(UUID.randomUUID() + "@example.com", "x", "Idempotent", "Test",
+                User.Role.EMPLOYEE, "Engineering"));
+        String key = UUID.randomUUID().toString();
+        LocalDate day = LocalDate.of(LocalDate.now().getYear() + 1, 3, 1)
+                .with(TemporalAdjusters.nextOrSame(DayOfWeek.WEDNESDAY));
+
+        create(employee, key, day, day.minusDays(1)).andExpect(status().isBadRequest());
+
+        create(employee, key, day, day)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        create(employee, key, day, day)
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+    }
+
+    private ResultActions create(User employee, String key, LocalDate startDate, LocalDate endDate) throws Exception {
+        LeaveRequestDto dto = new LeaveRequestDto();
+        dto.setType(LeaveRequest.LeaveType.SICK);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setReason("idempotency");
+        return mockMvc.perform(post("/leave-requests")
+                .with(user(employee))
+                .header(IdempotencyService.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.hrleave.controller;
+
+import com.hrleave.dto.LeaveRequestDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.service.LeaveRequestService;
+import com.hrleave.service.UserService;
+import com.hrleave.support.StatementCounts;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The list endpoints run a fixed number of statements whatever the number of rows they return
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    private StatementCounts statements;
+    private User director;
+    private User manager;
+    private LocalDate nextDay = LocalDate.of(LocalDate.now().getYear() + 1, 2, 1)
+            .with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+    @BeforeEach
+    void setUp() {
+        statements = new StatementCounts(mockMvc, entityManagerFactory);
+        director = newUser(User.Role.MANAGER, null);
+        manager = newUser(User.Role.MANAGER, director);
+        employeeWithRequest();
+    }
+
+    @Test
+    void myLeaveRequests() throws Exception {
+        User employee = employeeWithRequest();
+
+        statements.assertDoesNotGrow(get("/leave-requests/my").with(user(employee)), () -> {
+            for (int i = 0; i < 5; i++) {
+                request(employee);
+            }
+        });
+    }
+
+    @Test
+    void teamLeaveRequests() throws Exception {
+        statements.assertDoesNotGrow(get("/leave-requests/team").with(user(manager)), () -> addEmployees(5));
+        statements.assertDoesNotGrow(get("/leave-requests/team/pending").with(user(manager)), () -> addEmployees(5));
+    }
+
+    @Test
+    void organizationLeaveRequests() throws Exception {
+        statements.assertDoesNotGrow(get("/leave-requests/organization").with(user(director)), () -> addEmployees(5));
+    }
+
+    @Test
+    void teamAndOrganizationMembers() throws Exception {
+        statements.assertDoesNotGrow(get("/users/team").with(user(manager)), () -> addEmployees(5));
+        statements.assertDoesNotGrow(get("/users/organization").with(user(director)), () -> addEmployees(5));
+    }
+
+    private void addEmployees(int count) {
+        for (int i = 0; i < count; i++) {
+            employeeWithRequest();
+        }
+    }
+
+    private User employeeWithRequest() {
+        User employee = newUser(User.Role.EMPLOYEE, manager);
+        request(employee);
+        return employee;
+    }
+
+    // One working day per request, so that the requests of one employee never overlap
+    private void request(User employee) {
+        LeaveRequestDto dto = new LeaveRequestDto();
+        dto.setType(LeaveRequest.LeaveType.SICK);
+        dto.setStartDate(nextDay);
+        dto.setEndDate(nextDay);
+        dto.setReason("test");
+        leaveRequestService.createLeaveRequest(dto, employee.getId());
+        nextDay = nextDay.plusDays(nextDay.getDayOfWeek() == DayOfWeek.FRIDAY ? 3 : 1);
+    }
+
+    private User newUser(User.Role role, User manager) {
+        User user = new User(UUID.randomUUID() + "@example.com", "x", "Count", "Test", role, "Engineering");
+        user.setManager(manager);
+        return userService.createUser(user);
+    }
+}
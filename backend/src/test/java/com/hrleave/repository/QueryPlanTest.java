@@ -0,0 +1,176 @@
+package com.hrleave.repository;
+
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.support.QueryPlans;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hrleave.support.QueryPlans.indexConditions;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The hot repository queries must be served by the indexes of the migrations, checked on the EXPLAIN plan of the
+// SQL Hibernate actually generates for them. On empty tables every index costs the same to H2, so a few thousand rows
+// with a realistic spread are loaded and analyzed first; the context is dropped afterwards to keep them to this class.
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 400;
+    private static final int REQUESTS_PER_USER = 12;
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "Finance", "HR", "Support", "Marketing"};
+    private static final String[] STATUSES = {"PENDING", "APPROVED", "REJECTED", "CANCELLED"};
+
+    private static boolean seeded;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private QueryPlans plans;
+
+    @BeforeEach
+    void setUp() {
+        plans = new QueryPlans(jdbcTemplate, transactionManager);
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+    }
+
+    private void seed() {
+        LocalDate firstDay = LocalDate.of(2025, 1, 6);
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String role = i % 20 == 0 ? "MANAGER" : i % 50 == 1 ? "HR" : "EMPLOYEE";
+            users.add(new Object[]{"plan" + i + "@example.com", "x", "Plan", "User" + i, role,
+                    DEPARTMENTS[i % DEPARTMENTS.length], firstDay});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, first_name, last_name, role, department, " +
+                "join_date, enabled) VALUES (?, ?, ?, ?, ?, ?, ?, TRUE)", users);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE 'plan%' ORDER BY id", Long.class);
+        jdbcTemplate.update("UPDATE users u SET manager_id = (SELECT MIN(m.id) FROM users m WHERE m.email LIKE 'plan%' " +
+                "AND m.role = 'MANAGER' AND m.department = u.department) WHERE u.email LIKE 'plan%' AND u.role <> 'MANAGER'");
+
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> balances = new ArrayList<>();
+        List<Object[]> audits = new ArrayList<>();
+        for (int u = 0; u < ids.size(); u++) {
+            Long userId = ids.get(u);
+            for (int r = 0; r < REQUESTS_PER_USER; r++) {
+                LocalDate start = firstDay.plusDays((u * 7L + r * 29L) % 700);
+                requests.add(new Object[]{userId, "ANNUAL", start, start.plusDays(2), 3, STATUSES[(u + r) % STATUSES.length]});
+                audits.add(new Object[]{userId, "CREATE_LEAVE_REQUEST", "LeaveRequest", start.atStartOfDay()});
+            }
+            for (int year = 2023; year <= 2025; year++) {
+                balances.add(new Object[]{userId, year});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO leave_requests (user_id, type, start_date, end_date, days, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", requests);
+        jdbcTemplate.batchUpdate("INSERT INTO leave_balances (user_id, year, annual_leave, sick_leave, personal_leave, " +
+                "used_annual, used_sick, used_personal) VALUES (?, ?, 20, 10, 5, 0, 0, 0)", balances);
+        jdbcTemplate.batchUpdate("INSERT INTO audit_logs (user_id, action, entity_type, created_at) VALUES (?, ?, ?, ?)",
+                audits);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void overlapCheckUsesUserStatusDatesIndex() {
+        String plan = plans.of(() -> leaveRequestRepository.existsOverlapping(1L,
+                List.of(LeaveRequest.Status.PENDING, LeaveRequest.Status.APPROVED),
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null));
+
+        assertThat(indexConditions(plan, "IDX_LEAVE_REQUESTS_USER_STATUS_DATES"))
+                .contains("USER_ID = ?").contains("STATUS IN(");
+        assertThat(plan).doesNotContain("tableScan");
+    }
+
+    @Test
+    void requestsByUserAndStatusUseUserIndex() {
+        String plan = plans.of(() -> leaveRequestRepository.findByUserIdAndStatus(1L, LeaveRequest.Status.PENDING));
+
+        // H2 gives four statuses no selectivity, so the fk_leave_requests_user index ties with the composite one
+        assertThat(plan).containsPattern(
+                        "PUBLIC\\.(IDX_LEAVE_REQUESTS_USER_STATUS_DATES|FK_LEAVE_REQUESTS_USER_INDEX_\\w+): [^*]*USER_ID = \\?")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void requestsByStatusUseStatusStartIndex() {
+        assertThat(indexConditions(plans.of(() -> leaveRequestRepository.findByStatus(LeaveRequest.Status.PENDING)),
+                "IDX_LEAVE_REQUESTS_STATUS_START")).contains("STATUS = ?");
+        assertThat(indexConditions(plans.of(() -> leaveRequestRepository.countByStatus(LeaveRequest.Status.PENDING)),
+                "IDX_LEAVE_REQUESTS_STATUS_START")).contains("STATUS = ?");
+    }
+
+    @Test
+    void absenceScanUsesStatusStartIndex() {
+        String plan = plans.of(() -> {
+            try (var rows = leaveRequestRepository.streamAbsences(LeaveRequest.Status.APPROVED,
+                    LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))) {
+                rows.count();
+            }
+        });
+
+        assertThat(indexConditions(plan, "IDX_LEAVE_REQUESTS_STATUS_START")).contains("STATUS = ?");
+    }
+
+    @Test
+    void teamMembersUseManagerIndex() {
+        String plan = plans.of(() -> userRepository.findByManagerId(1L));
+
+        // idx_users_manager and the index H2 creates for fk_users_manager cover the same column
+        assertThat(plan).containsPattern("PUBLIC\\.(IDX_USERS_MANAGER|FK_USERS_MANAGER_INDEX_\\w+): MANAGER_ID = \\?")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void departmentMembersUseDepartmentRoleIndex() {
+        assertThat(indexConditions(plans.of(() -> userRepository.findByRoleAndDepartment(User.Role.MANAGER, "Engineering")),
+                "IDX_USERS_DEPARTMENT_ROLE")).contains("DEPARTMENT = ?").contains("ROLE = ?");
+        assertThat(indexConditions(plans.of(() -> userRepository.findByDepartment("Engineering")),
+                "IDX_USERS_DEPARTMENT_ROLE")).contains("DEPARTMENT = ?");
+    }
+
+    @Test
+    void balanceOfTheYearUsesUserYearKey() {
+        String plan = plans.of(() -> leaveBalanceRepository.findCurrentYearBalance(1L, 2025));
+
+        assertThat(indexConditions(plan, "UK_LEAVE_BALANCES_USER_YEAR")).contains("USER_ID = ?").contains("\"YEAR\" = ?");
+    }
+
+    @Test
+    void auditByDateRangeUsesCreatedAtIndex() {
+        String plan = plans.of(() -> auditLogRepository.findByDateRange(
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0)));
+
+        assertThat(indexConditions(plan, "IDX_AUDIT_LOGS_CREATED_AT")).contains("CREATED_AT >= ?");
+    }
+}
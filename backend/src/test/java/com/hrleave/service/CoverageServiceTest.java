@@ -0,0 +1,68 @@
+package com.hrleave.service;
+
+import com.hrleave.config.CoverageProperties;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.repository.LeaveRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// One person of Engineering may be off on a given day
+class CoverageServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 5);
+
+    private CoverageService coverageService;
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @BeforeEach
+    void setUp() {
+        coverageService = new CoverageService();
+        leaveRequestRepository = mock(LeaveRequestRepository.class);
+        CoverageProperties properties = new CoverageProperties();
+        properties.setDepartments(Map.of("Engineering", 1));
+        ReflectionTestUtils.setField(coverageService, "leaveRequestRepository", leaveRequestRepository);
+        ReflectionTestUtils.setField(coverageService, "coverageProperties", properties);
+    }
+
+    @Test
+    void deletedUserReleasesTheirApprovedAbsences() {
+        coverageService.reserve("Engineering", DAY, DAY);
+        assertThatThrownBy(() -> coverageService.reserve("Engineering", DAY, DAY)).hasMessageContaining("already has 1");
+
+        LeaveRequest approved = new LeaveRequest();
+        approved.setStartDate(DAY);
+        approved.setEndDate(DAY);
+        when(leaveRequestRepository.findByUserIdAndStatus(7L, LeaveRequest.Status.APPROVED)).thenReturn(List.of(approved));
+        coverageService.removeMember(7L, "Engineering");
+
+        coverageService.reserve("Engineering", DAY, DAY);
+    }
+
+    @Test
+    void userFirstAssignedToADepartmentBringsTheirApprovedAbsences() {
+        LeaveRequest approved = new LeaveRequest();
+        approved.setStartDate(DAY);
+        approved.setEndDate(DAY);
+        when(leaveRequestRepository.findByUserIdAndStatus(7L, LeaveRequest.Status.APPROVED)).thenReturn(List.of(approved));
+        coverageService.moveMember(7L, null, "Engineering");
+
+        assertThatThrownBy(() -> coverageService.reserve("Engineering", DAY, DAY)).hasMessageContaining("already has 1");
+    }
+
+    @Test
+    void releaseWithoutReservationDoesNotFreeCapacity() {
+        coverageService.releaseAfterCommit("Engineering", DAY, DAY);
+
+        coverageService.reserve("Engineering", DAY, DAY);
+        assertThatThrownBy(() -> coverageService.reserve("Engineering", DAY, DAY)).hasMessageContaining("already has 1");
+    }
+}
@@ -0,0 +1,71 @@
+package com.hrleave.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Once the action has returned, a retry with the same key replays its response instead of running it again
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final Long USER_ID = 42L;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void largeResponseIsStoredAndReplayed() {
+        String key = UUID.randomUUID().toString();
+        String large = "x".repeat(20_000);
+
+        ResponseEntity<String> first = execute(key, ResponseEntity.ok(large));
+        ResponseEntity<String> retry = execute(key, ResponseEntity.ok("other"));
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getBody()).isEqualTo(first.getBody()).hasSize(20_000);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void serverErrorResponseIsFinal() {
+        String key = UUID.randomUUID().toString();
+
+        execute(key, ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("down"));
+        ResponseEntity<String> retry = execute(key, ResponseEntity.ok("up"));
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void actionThatThrowsReleasesTheKey() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, USER_ID, "test", "request", String.class, () -> {
+            throw new RuntimeException("rolled back");
+        })).hasMessage("rolled back");
+        ResponseEntity<String> retry = execute(key, ResponseEntity.ok("done"));
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getBody()).isEqualTo("done");
+    }
+
+    private ResponseEntity<String> execute(String key, ResponseEntity<String> response) {
+        return idempotencyService.execute(key, USER_ID, "test", "request", String.class, () -> {
+            runs.incrementAndGet();
+            return response;
+        });
+    }
+}
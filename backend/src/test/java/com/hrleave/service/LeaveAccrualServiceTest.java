@@ -0,0 +1,75 @@
+package com.hrleave.service;
+
+import com.hrleave.entity.LeaveBalance;
+import com.hrleave.entity.User;
+import com.hrleave.repository.LeaveBalanceRepository;
+import com.hrleave.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "leave.accrual.enabled=true")
+@ActiveProfiles("test")
+class LeaveAccrualServiceTest {
+
+    @Autowired
+    private LeaveAccrualService leaveAccrualService;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void balanceReadBeforeAnAccrualCannotBeSavedOverIt() {
+        User user = employee();
+        int year = LocalDate.now().getYear();
+        leaveBalanceService.getLeaveBalance(user.getId());
+        LeaveBalance stale = new TransactionTemplate(transactionManager).execute(status ->
+                leaveBalanceRepository.findByUserIdAndYear(user.getId(), year).orElseThrow());
+
+        leaveAccrualService.accrue(YearMonth.now(), null);
+
+        stale.setUsedAnnual(1);
+        assertThatThrownBy(() -> leaveBalanceRepository.save(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        // Default policy, 25 annual days a year, credited for every month of the year so far
+        assertThat(leaveBalanceService.getLeaveBalance(user.getId()).getAnnualLeave())
+                .isEqualTo(25 * YearMonth.now().getMonthValue() / 12);
+    }
+
+    @Test
+    void eachYearHasItsOwnBalance() {
+        User user = employee();
+        int year = LocalDate.now().getYear();
+        leaveBalanceRepository.save(new LeaveBalance(user, year - 1));
+
+        assertThat(leaveBalanceService.getLeaveBalance(user.getId()).getYear()).isEqualTo(year);
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(user.getId(), year - 1)).isPresent();
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(user.getId(), year)).isPresent();
+    }
+
+    private User employee() {
+        User user = new User(UUID.randomUUID() + "@example.com", "x", "Accrual", "Test", User.Role.EMPLOYEE, "Engineering");
+        user.setJoinDate(LocalDate.now().minusYears(2));
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,113 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.LeaveRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveEventBroadcasterTest {
+
+    private static final long FAST = 1L;
+    private static final long SLOW = 2L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Long, AtomicInteger> delivered = new ConcurrentHashMap<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LeaveEventBroadcaster broadcaster;
+    private long subscribing;
+
+    // Emitters that count the events they are given; the slow user's block like a client that stopped reading
+    private class RecordingEmitter extends SseEmitter {
+        private final long userId;
+
+        RecordingEmitter(long userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (userId == SLOW && delivered.containsKey(SLOW)) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            delivered.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new LeaveEventBroadcaster() {
+            @Override
+            SseEmitter createEmitter() {
+                return new RecordingEmitter(subscribing);
+            }
+        };
+        ReflectionTestUtils.setField(broadcaster, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(broadcaster, "maxStreamsPerUser", 5);
+        ReflectionTestUtils.setField(broadcaster, "queueCapacity", 8);
+        ReflectionTestUtils.setField(broadcaster, "sendTimeoutMs", 50L);
+        ReflectionTestUtils.setField(broadcaster, "senderThreads", 2);
+        broadcaster.init();
+        subscribe(FAST);
+        subscribe(SLOW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void clientThatStopsReadingIsDroppedWithoutDelayingOthers() throws InterruptedException {
+        // One event at the pace the fast client reads: the blocked one overflows its queue of 8
+        for (int i = 1; i <= 20; i++) {
+            broadcaster.publishAfterCommit("leave-request-updated", new LeaveRequestDto(), Set.of(FAST, SLOW));
+            awaitDelivered(FAST, 1 + i);
+        }
+
+        assertThat(meterRegistry.get("hrleave.events.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hrleave.events.streams").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeatDropsStreamStuckInASend() throws InterruptedException {
+        broadcaster.publishAfterCommit("leave-request-updated", new LeaveRequestDto(), List.of(SLOW));
+        Thread.sleep(200);
+
+        broadcaster.heartbeat();
+
+        assertThat(meterRegistry.get("hrleave.events.dropped").counter().count()).isEqualTo(1);
+        awaitDelivered(FAST, 1 + 1);
+    }
+
+    private void subscribe(long userId) {
+        subscribing = userId;
+        broadcaster.subscribe(userId);
+    }
+
+    private void awaitDelivered(long userId, int events) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (delivered.get(userId).get() < events && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(delivered.get(userId).get()).isEqualTo(events);
+    }
+}
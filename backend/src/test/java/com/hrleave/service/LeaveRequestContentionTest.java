@@ -0,0 +1,146 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.LeaveRequestDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.repository.LeaveRequestRepository;
+import com.hrleave.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Concurrent status transitions of one request. Each round creates a one-day annual leave and releases approvals
+// and rejections by two reviewers at once, with cancellations by the employee mixed in every other round. Exactly one
+// call takes the request out of PENDING; the only other success allowed is a cancellation of the approved request.
+// Losers fail with the service's own messages, and the used annual days move only if the request ends APPROVED.
+@SpringBootTest
+@ActiveProfiles("test")
+class LeaveRequestContentionTest {
+
+    private static final int ROUNDS = 10;
+    private static final int THREADS = 32;
+    private static final Set<String> LOSING_MESSAGES = Set.of("Leave request is not pending",
+            "Leave request was changed concurrently", "Leave request is already rejected",
+            "Leave request is already cancelled");
+
+    private enum Action { APPROVE, REJECT, CANCEL }
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User employee;
+    private List<User> reviewers;
+
+    @BeforeEach
+    void setUp() {
+        User manager = user(User.Role.MANAGER, null);
+        reviewers = List.of(manager, user(User.Role.HR, null));
+        employee = user(User.Role.EMPLOYEE, manager);
+    }
+
+    @Test
+    void exactlyOneTransitionWinsEachRound() throws Exception {
+        LocalDate day = LocalDate.of(LocalDate.now().getYear() + 1, 4, 1)
+                .with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 1; round <= ROUNDS; round++, day = day.plusWeeks(1)) {
+                Long requestId = create(day);
+                int usedBefore = leaveBalanceService.getLeaveBalance(employee.getId()).getUsedAnnual();
+                boolean withCancels = round % 2 == 0;
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Action> actions = new ArrayList<>();
+                List<Callable<Void>> calls = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    Action action = Action.values()[i % (withCancels ? 3 : 2)];
+                    User reviewer = reviewers.get(i % reviewers.size());
+                    actions.add(action);
+                    calls.add(() -> {
+                        start.await();
+                        switch (action) {
+                            case APPROVE -> leaveRequestService.approveLeaveRequest(requestId, "contention", reviewer.getId());
+                            case REJECT -> leaveRequestService.rejectLeaveRequest(requestId, "contention", reviewer.getId());
+                            case CANCEL -> leaveRequestService.cancelLeaveRequest(requestId, employee.getId());
+                        }
+                        return null;
+                    });
+                }
+                List<Future<Void>> results = new ArrayList<>();
+                for (Callable<Void> call : calls) {
+                    results.add(pool.submit(call));
+                }
+                start.countDown();
+
+                int[] wins = new int[Action.values().length];
+                for (int i = 0; i < THREADS; i++) {
+                    try {
+                        results.get(i).get();
+                        wins[actions.get(i).ordinal()]++;
+                    } catch (ExecutionException e) {
+                        assertThat(LOSING_MESSAGES).as("round %d: %s", round, e.getCause())
+                                .contains(e.getCause().getMessage());
+                    }
+                }
+
+                LeaveRequest.Status finalStatus = leaveRequestRepository.findById(requestId).orElseThrow().getStatus();
+                int decisions = wins[Action.APPROVE.ordinal()] + wins[Action.REJECT.ordinal()];
+                int cancels = wins[Action.CANCEL.ordinal()];
+                boolean approvedThenCancelled = wins[Action.APPROVE.ordinal()] == 1 && cancels == 1
+                        && finalStatus == LeaveRequest.Status.CANCELLED;
+                assertThat(decisions + cancels == 1 || approvedThenCancelled)
+                        .as("round %d: %d approvals, %d rejections, %d cancellations won, final %s", round,
+                                wins[Action.APPROVE.ordinal()], wins[Action.REJECT.ordinal()], cancels, finalStatus)
+                        .isTrue();
+
+                int usedDelta = leaveBalanceService.getLeaveBalance(employee.getId()).getUsedAnnual() - usedBefore;
+                assertThat(usedDelta).as("round %d", round)
+                        .isEqualTo(finalStatus == LeaveRequest.Status.APPROVED ? 1 : 0);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Long create(LocalDate day) {
+        LeaveRequestDto dto = new LeaveRequestDto();
+        dto.setType(LeaveRequest.LeaveType.ANNUAL);
+        dto.setStartDate(day);
+        dto.setEndDate(day);
+        dto.setReason("contention");
+        return leaveRequestService.createLeaveRequest(dto, employee.getId()).getId();
+    }
+
+    private User user(User.Role role, User manager) {
+        User user = new User(UUID.randomUUID() + "@example.com", "x", "Contention", "Test", role, "Engineering");
+        user.setManager(manager);
+        return userRepository.save(user);
+    }
+}
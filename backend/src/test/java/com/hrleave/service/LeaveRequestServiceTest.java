@@ -0,0 +1,133 @@
+package com.hrleave.service;
+
+import com.hrleave.dto.LeaveRequestDto;
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.entity.User;
+import com.hrleave.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Pending and approved requests of one user may not overlap
+@SpringBootTest
+@ActiveProfiles("test")
+class LeaveRequestServiceTest {
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User manager;
+    private User employee;
+    // A Monday far enough ahead to be free of public holidays in the default calendar's next weeks
+    private final LocalDate monday = LocalDate.of(LocalDate.now().getYear() + 1, 3, 1)
+            .with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+    @BeforeEach
+    void setUp() {
+        manager = user(User.Role.MANAGER, null);
+        employee = user(User.Role.EMPLOYEE, manager);
+    }
+
+    @Test
+    void overlappingPendingRequestIsRefused() {
+        create(monday, monday.plusDays(4));
+
+        assertThatThrownBy(() -> create(monday.plusDays(4), monday.plusDays(8)))
+                .hasMessageContaining("overlaps");
+    }
+
+    @Test
+    void adjacentRequestsAreAccepted() {
+        create(monday, monday.plusDays(1));
+
+        assertThat(create(monday.plusDays(2), monday.plusDays(3)).getStatus()).isEqualTo(LeaveRequest.Status.PENDING);
+    }
+
+    @Test
+    void approvedRequestBlocksAndRejectedOrCancelledDoNot() {
+        LeaveRequestDto approved = create(monday, monday);
+        leaveRequestService.approveLeaveRequest(approved.getId(), "ok", manager.getId());
+        assertThatThrownBy(() -> create(monday, monday)).hasMessageContaining("overlaps");
+
+        LeaveRequestDto rejected = create(monday.plusDays(1), monday.plusDays(1));
+        leaveRequestService.rejectLeaveRequest(rejected.getId(), "no", manager.getId());
+        LeaveRequestDto cancelled = create(monday.plusDays(2), monday.plusDays(2));
+        leaveRequestService.cancelLeaveRequest(cancelled.getId(), employee.getId());
+
+        create(monday.plusDays(1), monday.plusDays(2));
+    }
+
+    @Test
+    void updateIgnoresTheRequestItselfButNotTheOthers() {
+        LeaveRequestDto first = create(monday, monday.plusDays(1));
+        create(monday.plusDays(3), monday.plusDays(4));
+
+        leaveRequestService.updateLeaveRequest(first.getId(), dto(monday, monday.plusDays(2)), employee.getId());
+        assertThatThrownBy(() -> leaveRequestService.updateLeaveRequest(first.getId(),
+                dto(monday, monday.plusDays(3)), employee.getId()))
+                .hasMessageContaining("overlaps");
+    }
+
+    @Test
+    void concurrentOverlappingRequestsLetExactlyOneThrough() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<LeaveRequestDto>> attempts = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                LocalDate start = monday.plusDays(i % 3);
+                attempts.add(() -> create(start, start.plusDays(2)));
+            }
+            int created = 0;
+            for (Future<LeaveRequestDto> attempt : pool.invokeAll(attempts)) {
+                try {
+                    attempt.get();
+                    created++;
+                } catch (Exception e) {
+                    assertThat(e).hasRootCauseMessage("Leave request overlaps an existing pending or approved request");
+                }
+            }
+            assertThat(created).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private LeaveRequestDto create(LocalDate start, LocalDate end) {
+        return leaveRequestService.createLeaveRequest(dto(start, end), employee.getId());
+    }
+
+    private static LeaveRequestDto dto(LocalDate start, LocalDate end) {
+        LeaveRequestDto dto = new LeaveRequestDto();
+        dto.setType(LeaveRequest.LeaveType.ANNUAL);
+        dto.setStartDate(start);
+        dto.setEndDate(end);
+        dto.setReason("test");
+        return dto;
+    }
+
+    private User user(User.Role role, User manager) {
+        User user = new User(UUID.randomUUID() + "@example.com", "x", "Overlap", "Test", role, "Engineering");
+        user.setManager(manager);
+        return userRepository.save(user);
+    }
+}
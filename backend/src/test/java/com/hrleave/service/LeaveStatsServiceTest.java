@@ -0,0 +1,66 @@
+package com.hrleave.service;
+
+import com.hrleave.entity.LeaveRequest;
+import com.hrleave.repository.ArchivedLeaveRequestRepository;
+import com.hrleave.repository.LeaveRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Transitions recorded while reconcile() counts the table survive the swap of the counters
+class LeaveStatsServiceTest {
+
+    private LeaveStatsService leaveStatsService;
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @BeforeEach
+    void setUp() {
+        leaveStatsService = new LeaveStatsService();
+        leaveRequestRepository = mock(LeaveRequestRepository.class);
+        ArchivedLeaveRequestRepository archivedRepository = mock(ArchivedLeaveRequestRepository.class);
+        when(archivedRepository.countGroupedByDepartmentStatusAndType()).thenReturn(List.of());
+        ReflectionTestUtils.setField(leaveStatsService, "leaveRequestRepository", leaveRequestRepository);
+        ReflectionTestUtils.setField(leaveStatsService, "archivedLeaveRequestRepository", archivedRepository);
+    }
+
+    @Test
+    void transitionDuringTheCountIsReplayedOntoTheNewCounters() {
+        when(leaveRequestRepository.countGroupedByDepartmentStatusAndType()).thenReturn(rows(1));
+        leaveStatsService.reconcile();
+
+        // A request created after the count read the table, its after-commit hook running before the swap
+        when(leaveRequestRepository.countGroupedByDepartmentStatusAndType()).thenAnswer(invocation -> {
+            leaveStatsService.recordTransition("Engineering", null, null,
+                    LeaveRequest.LeaveType.ANNUAL, LeaveRequest.Status.PENDING);
+            return rows(1);
+        });
+        leaveStatsService.reconcile();
+
+        assertThat(leaveStatsService.getStats().getByStatus()).containsEntry("PENDING", 2L);
+    }
+
+    @Test
+    void transitionAfterReconcileLandsInTheNewCounters() {
+        when(leaveRequestRepository.countGroupedByDepartmentStatusAndType()).thenReturn(rows(3));
+        leaveStatsService.reconcile();
+
+        leaveStatsService.recordTransition("Engineering", LeaveRequest.LeaveType.ANNUAL, LeaveRequest.Status.PENDING,
+                LeaveRequest.LeaveType.ANNUAL, LeaveRequest.Status.APPROVED);
+
+        assertThat(leaveStatsService.getStats().getByStatus())
+                .containsEntry("PENDING", 2L).containsEntry("APPROVED", 1L);
+    }
+
+    private static List<Object[]> rows(long pending) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"Engineering", LeaveRequest.Status.PENDING, LeaveRequest.LeaveType.ANNUAL, pending});
+        return rows;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hrleave.service;
+
+import com.hrleave.entity.OrgClosure;
+import com.hrleave.entity.User;
+import com.hrleave.repository.OrgClosureRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Manager changes keep the org closure acyclic under concurrency, and a closure that drifted is rebuilt at startup
+@SpringBootTest
+@ActiveProfiles("test")
+class OrgHierarchyServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrgHierarchyService orgHierarchyService;
+
+    @Autowired
+    private OrgClosureRepository orgClosureRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void crossedManagerChangesLetExactlyOneThrough() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                User first = user(null);
+                User second = user(null);
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> firstUnderSecond = pool.submit(() -> assign(start, first, second));
+                Future<?> secondUnderFirst = pool.submit(() -> assign(start, second, first));
+                start.countDown();
+
+                int moved = 0;
+                for (Future<?> change : List.of(firstUnderSecond, secondUnderFirst)) {
+                    try {
+                        change.get();
+                        moved++;
+                    } catch (Exception e) {
+                        assertThat(e).hasRootCauseMessage("Manager assignment would create a cycle in the organisation");
+                    }
+                }
+                assertThat(moved).as("round %d", round).isEqualTo(1);
+                assertThat(orgClosureRepository.isAncestor(first.getId(), second.getId())
+                        && orgClosureRepository.isAncestor(second.getId(), first.getId())).isFalse();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void closureWithTheRightSizeButWrongPathsIsRebuilt() {
+        User top = user(null);
+        User middle = user(top);
+        User bottom = user(middle);
+        // Same number of rows, one of them pointing at the wrong depth and one path swapped for another
+        jdbcTemplate.update("UPDATE org_closure SET depth = 5 WHERE ancestor_id = ? AND descendant_id = ?",
+                top.getId(), bottom.getId());
+        jdbcTemplate.update("UPDATE org_closure SET ancestor_id = ?, descendant_id = ? WHERE ancestor_id = ? AND descendant_id = ?",
+                bottom.getId(), middle.getId(), middle.getId(), bottom.getId());
+
+        orgHierarchyService.rebuildIfStale();
+
+        assertThat(orgClosureRepository.findAncestors(bottom.getId()))
+                .extracting(OrgClosure::getAncestorId, OrgClosure::getDepth)
+                .containsExactly(tuple(bottom.getId(), 0),
+                        tuple(middle.getId(), 1),
+                        tuple(top.getId(), 2));
+    }
+
+    private void assign(CountDownLatch start, User user, User manager) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        User details = new User(user.getEmail(), null, user.getFirstName(), user.getLastName(), user.getRole(),
+                user.getDepartment());
+        details.setManager(manager);
+        userService.updateUser(user.getId(), details);
+    }
+
+    private User user(User manager) {
+        User user = new User(UUID.randomUUID() + "@example.com", "x", "Org", "Test", User.Role.MANAGER, "Engineering");
+        user.setManager(manager);
+        return userService.createUser(user);
+    }
+}
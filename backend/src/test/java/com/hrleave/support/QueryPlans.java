@@ -0,0 +1,77 @@
+package com.hrleave.support;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// EXPLAIN plans of the statements a repository call sends, as H2 prints them: the index used by each table access
+// appears as a comment ("/* PUBLIC.IDX_...: USER_ID = ?1 AND STATUS = ?2 */"), a full scan as "tableScan". Parameters
+// are bound to null, which does not change the chosen index, and whitespace is collapsed so that the conditions of an
+// index comment sit on one line.
+public class QueryPlans {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    public QueryPlans(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Plan of the single SELECT the call runs
+    public String of(Runnable call) {
+        List<String> plans = all(call);
+        if (plans.size() != 1) {
+            throw new IllegalStateException("Expected one SELECT, got " + plans.size());
+        }
+        return plans.get(0);
+    }
+
+    // Conditions H2 resolves through the named index, as printed in its comment, or null when the index is not used.
+    // H2 names the index backing a constraint after it ("UK_..._INDEX_2"), which is matched too.
+    public static String indexConditions(String plan, String index) {
+        Matcher matcher = Pattern.compile("\\." + index + "(_INDEX_\\w+)?: ([^*]*)\\*/").matcher(plan);
+        return matcher.find() ? matcher.group(2).trim() : null;
+    }
+
+    public List<String> all(Runnable call) {
+        SqlCapture.start();
+        List<String> statements;
+        try {
+            transaction.executeWithoutResult(status -> call.run());
+        } finally {
+            statements = SqlCapture.stop();
+        }
+
+        List<String> plans = new ArrayList<>();
+        for (String sql : statements) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                plans.add(explain(sql));
+            }
+        }
+        return plans;
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return rows.getString(1).replaceAll("\\s+", " ");
+                }
+            }
+        });
+    }
+}
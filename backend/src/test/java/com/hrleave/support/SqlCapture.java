@@ -0,0 +1,32 @@
+package com.hrleave.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records the SQL Hibernate prepares on the current thread between start() and stop(), so that tests can inspect
+// the statements generated for repository queries (see QueryPlans)
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+    public static void start() {
+        statements.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        List<String> captured = statements.get();
+        statements.remove();
+        return captured != null ? captured : List.of();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = statements.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hrleave.support;
+
+import com.hrleave.monitoring.QueryGuardFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Fails a test when the number of SQL statements an endpoint runs grows with the size of its result (N+1). The count
+// is the X-Query-Count header of QueryGuardFilter (app.query-guard.expose-header), which includes the statements run
+// while serializing the response. The second-level cache is emptied before each call, otherwise lazy loads it
+// answers would hide an N+1 that a cold cache, or a cache too small for the result, would run.
+public class StatementCounts {
+
+    private final MockMvc mockMvc;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public StatementCounts(MockMvc mockMvc, EntityManagerFactory entityManagerFactory) {
+        this.mockMvc = mockMvc;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public int of(RequestBuilder request) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(header().exists(QueryGuardFilter.QUERY_COUNT_HEADER))
+                .andReturn();
+        return Integer.parseInt(result.getResponse().getHeader(QueryGuardFilter.QUERY_COUNT_HEADER));
+    }
+
+    // Calls the endpoint, lets growResult add rows to what it returns, and calls it again: the second call may not run
+    // more statements than the first
+    public void assertDoesNotGrow(RequestBuilder request, ThrowingRunnable growResult) throws Exception {
+        int before = of(request);
+        growResult.run();
+        int after = of(request);
+        assertThat(after).as("SQL statements of %s after its result grew (N+1?)", describe(request))
+                .isLessThanOrEqualTo(before);
+    }
+
+    private static String describe(RequestBuilder request) {
+        MockHttpServletRequest built = request.buildRequest(new MockServletContext());
+        return built.getMethod() + " " + built.getRequestURI();
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}